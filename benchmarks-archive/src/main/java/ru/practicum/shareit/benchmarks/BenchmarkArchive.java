@@ -0,0 +1,132 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//Запуск JMH с архивированием результатов: <bench.archive>/<bench.suite>/<время>-<коммит>.json (JSON-формат JMH).
+//После запуска результаты сравниваются с предыдущим файлом того же набора: ухудшение score больше
+//bench.threshold процентов (по умолчанию 10) отмечается как регрессия. Для avgt, sample и ss лучше меньшее
+//значение, для thrpt - большее.
+//Аргументы - аргументы JMH; "compare <было.json> <стало.json>" - только сравнить два файла архива.
+//Запросы списка и справки (-l, -lp, -lrf, -lprof, -h) передаются org.openjdk.jmh.Main без архивирования.
+//При регрессиях процесс завершается с кодом 1, чтобы запуск в CI считался неудачным
+public class BenchmarkArchive {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        double threshold = Double.parseDouble(System.getProperty("bench.threshold", "10"));
+        if (args.length == 3 && "compare".equals(args[0])) {
+            exit(compare(Path.of(args[1]), Path.of(args[2]), threshold));
+            return;
+        }
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldList() || options.shouldListWithParams() || options.shouldListResultFormats()
+                || options.shouldListProfilers() || options.shouldHelp()) {
+            Main.main(args);
+            return;
+        }
+        Path suite = Path.of(System.getProperty("bench.archive", "results"), System.getProperty("bench.suite", "server"));
+        Files.createDirectories(suite);
+        Optional<Path> previous = latest(suite);
+        Path result = suite.resolve(LocalDateTime.now().format(TIMESTAMP) + "-" + commit() + ".json");
+        try {
+            new Runner(new OptionsBuilder()
+                    .parent(options)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString())
+                    .build())
+                    .run();
+        } catch (RunnerException e) {
+            //неудачный запуск не должен попасть в архив как база для сравнения
+            Files.deleteIfExists(result);
+            throw e;
+        }
+        System.out.println("\nResults archived to " + result.toAbsolutePath());
+        if (previous.isPresent())
+            exit(compare(previous.get(), result, threshold));
+    }
+
+    private static void exit(int regressions) {
+        if (regressions > 0)
+            System.exit(1);
+    }
+
+    //Возвращает число регрессий
+    private static int compare(Path before, Path after, double threshold) throws IOException {
+        Map<String, JsonNode> baseline = scores(before);
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%nComparison with %s (threshold %.0f%%)%n", before.getFileName(), threshold);
+        for (Map.Entry<String, JsonNode> entry : scores(after).entrySet()) {
+            JsonNode old = baseline.get(entry.getKey());
+            if (old == null)
+                continue;
+            double was = old.path("primaryMetric").path("score").asDouble();
+            double now = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double change = was == 0 ? 0 : (now - was) / was * 100;
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            boolean regression = (higherIsBetter ? -change : change) > threshold;
+            System.out.printf("%-80s %14.3f -> %14.3f %-12s %+7.1f%%%s%n", entry.getKey(), was, now,
+                    entry.getValue().path("primaryMetric").path("scoreUnit").asText(), change,
+                    regression ? "  REGRESSION" : "");
+            if (regression)
+                regressions.add(entry.getKey());
+        }
+        System.out.println(regressions.isEmpty() ? "No regressions" : "Regressions: " + regressions.size());
+        return regressions.size();
+    }
+
+    //Результаты файла по ключу "бенчмарк режим {параметры}"
+    private static Map<String, JsonNode> scores(Path file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode result : JSON.readTree(file.toFile())) {
+            String key = result.path("benchmark").asText() + " " + result.path("mode").asText();
+            if (result.has("params"))
+                key += " " + result.get("params");
+            scores.put(key, result);
+        }
+        return scores;
+    }
+
+    private static Optional<Path> latest(Path suite) throws IOException {
+        try (Stream<Path> files = Files.list(suite)) {
+            return files.filter(file -> file.toString().endsWith(".json"))
+                    .max(Path::compareTo);
+        }
+    }
+
+    //Коммит рабочей копии (с пометкой -dirty при незафиксированных изменениях), если git доступен
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "describe", "--always", "--dirty").start();
+            String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !commit.isEmpty() ? commit : "nogit";
+        } catch (IOException e) {
+            return "nogit";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "nogit";
+        }
+    }
+}
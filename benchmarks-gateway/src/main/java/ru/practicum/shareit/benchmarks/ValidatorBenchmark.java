@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmarks;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.auxiliary.validations.EnumValid;
+import ru.practicum.shareit.auxiliary.validations.OnCreate;
+import ru.practicum.shareit.auxiliary.validations.ValidateBookingDates;
+import ru.practicum.shareit.auxiliary.validations.ValidateEnumVariable;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookState;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//Валидаторы gateway: ValidateEnumVariable (параметр state списков бронирований) и ValidateBookingDates
+//(даты нового бронирования) - сами по себе и bookingRequest - полная проверка BookItemRequestDto через Validator.
+//state: известное значение в нижнем регистре, последнее значение перечисления и неизвестное значение
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private final ValidateBookingDates datesValidator = new ValidateBookingDates();
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private BookItemRequestDto booking;
+
+    //Параметр state меняется только для enumVariable
+    @State(Scope.Benchmark)
+    public static class EnumState {
+
+        @Param({"all", "WAITING", "UNKNOWN"})
+        private String state;
+
+        private final ValidateEnumVariable validator = new ValidateEnumVariable();
+
+        @Setup(Level.Trial)
+        public void setUp() throws NoSuchMethodException {
+            //аннотация берется с параметра, как у контроллера
+            validator.initialize((EnumValid) ValidatorBenchmark.class
+                    .getDeclaredMethod("annotated", String.class).getParameterAnnotations()[0][0]);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        booking = new BookItemRequestDto(1L, start, start.plusDays(2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean enumVariable(EnumState enumState) {
+        return enumState.validator.isValid(enumState.state, null);
+    }
+
+    @Benchmark
+    public boolean bookingDates() {
+        return datesValidator.isValid(booking, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookItemRequestDto>> bookingRequest() {
+        return validator.validate(booking, OnCreate.class);
+    }
+
+    @SuppressWarnings("unused")
+    private static void annotated(@EnumValid(enumClass = BookState.class) String state) {
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.comments.ShortCommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//Объекты для бенчмарков без БД: вещь с владельцем, запросом и комментариями, бронирования вещи
+final class BenchmarkData {
+
+    static final LocalDateTime NOW = LocalDateTime.now();
+
+    private BenchmarkData() {
+    }
+
+    static Item item(long id, int commentCount) {
+        User owner = new User(1L, "Owner", "owner@email.com", 0);
+        ItemRequest request = new ItemRequest(3L, "Нужна дрель на выходные", new User(2L, "Requestor",
+                "requestor@email.com", 0), NOW.minusDays(10), 0, null);
+        Item item = Item.builder()
+                .id(id)
+                .name("Дрель " + id)
+                .description("Аккумуляторная дрель с двумя батареями и набором сверл")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .comments(new ArrayList<>())
+                .build();
+        for (int i = 0; i < commentCount; i++)
+            item.getComments().add(new ShortCommentDto((long) i, "Отличная дрель, спасибо! " + i,
+                    "Author " + i, NOW.minusDays(i)));
+        return item;
+    }
+
+    //count бронирований вещи: половина в прошлом, половина в будущем, в перемешанном порядке
+    static List<Booking> bookings(Item item, int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        User booker = new User(2L, "Booker", "booker@email.com", 0);
+        for (int i = 0; i < count; i++) {
+            long offset = (i * 7919L) % count - count / 2;
+            LocalDateTime start = NOW.plusHours(offset * 3);
+            bookings.add(new Booking((long) i, start, start.plusHours(2), item, booker, BookStatus.APPROVED, 0L));
+        }
+        return bookings;
+    }
+}
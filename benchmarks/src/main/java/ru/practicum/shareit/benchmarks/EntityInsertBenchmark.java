@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.item.dto.items.ItemDto;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+//Скорость записи вещей, одна операция - itemCount вещей. БД - H2 в режиме PostgreSQL, подключение через
+//TCP-сервер H2, чтобы каждое обращение к БД было сетевым, как с PostgreSQL.
+//jdbcBatchSize=1 воспроизводит прежнее поведение (IDENTITY): каждый INSERT - отдельное обращение к БД;
+//jdbcBatchSize=50 - INSERT объединяются в JDBC-пакеты, id берутся из последовательности блоками.
+//batch - одним вызовом createItems (одна транзакция), oneByOne - отдельными вызовами createItem
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityInsertBenchmark {
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    @Param({"100"})
+    private int itemCount;
+
+    private Server h2Server;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    private JdbcTemplate jdbc;
+
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        h2Server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + h2Server.getPort()
+                                + "/mem:bench;MODE=PostgreSQL;DATABASE_TO_UPPER=false",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=bench",
+                        "--spring.datasource.password=bench",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--logging.level.root=WARN");
+        jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (name, email) VALUES ('Bench user', 'bench@email.com')");
+        ownerId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    //Таблица вещей очищается, чтобы размер индексов не рос от итерации к итерации
+    @Setup(Level.Iteration)
+    public void clearItems() {
+        jdbc.update("DELETE FROM items");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        h2Server.stop();
+    }
+
+    @Benchmark
+    public List<BatchResult<ItemOutputDto>> batch() {
+        return itemService.createItems(ownerId, items());
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        int created = 0;
+        for (ItemDto itemDto : items()) {
+            itemDto.setOwner(ownerId);
+            itemService.createItem(itemDto);
+            created++;
+        }
+        return created;
+    }
+
+    private List<ItemDto> items() {
+        return IntStream.range(0, itemCount)
+                .mapToObj(i -> ItemDto.builder()
+                        .name("Bench item " + i)
+                        .description("Item for insert benchmark")
+                        .available(true)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Нагрузочное сравнение gateway на платформенных и виртуальных потоках.
+//Gateway запускается отдельным процессом из собранного jar, сервер заменен заглушкой с фиксированной задержкой,
+//поэтому измеряется только стоимость ожидания ответа сервера в gateway.
+//Режим direct нагружает заглушку напрямую и показывает потолок самого стенда.
+//Параметры (-Dload.args="..."): concurrency=2000 duration=20 latency=50 connections=4000 modes=direct,platform,virtual
+public class GatewayLoadTest {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)");
+
+    private static final String USER_JSON = "{\"id\":1,\"name\":\"Load user\",\"email\":\"load@email.com\"}";
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intArg(args, "concurrency", 2000);
+        int durationSeconds = intArg(args, "duration", 20);
+        int latencyMillis = intArg(args, "latency", 50);
+        int connections = intArg(args, "connections", 4000);
+        String[] modes = stringArg(args, "modes", "direct,platform,virtual").split(",");
+        Path gatewayJar = Path.of(System.getProperty("gateway.jar",
+                "../gateway/target/shareit-gateway-0.0.1-SNAPSHOT-exec.jar"));
+        if (!Files.exists(gatewayJar))
+            throw new IllegalStateException("Gateway jar not found: " + gatewayJar.toAbsolutePath()
+                    + ". Build it with mvn -pl gateway -am install -DskipTests");
+
+        //иначе заглушка закрывает keep-alive соединения сверх 200 простаивающих
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(connections));
+        HttpServer stubServer = startStubServer(latencyMillis);
+        List<String> report = new ArrayList<>();
+        try {
+            for (String mode : modes) {
+                if ("direct".equals(mode)) {
+                    report.add(mode + ": " + runLoad(stubServer.getAddress().getPort(), concurrency, durationSeconds));
+                    continue;
+                }
+                Gateway gateway = startGateway(gatewayJar, mode, stubServer.getAddress().getPort(), connections);
+                try {
+                    report.add(mode + ": " + runLoad(gateway.port(), concurrency, durationSeconds));
+                } finally {
+                    gateway.process().destroy();
+                    gateway.process().waitFor();
+                }
+            }
+        } finally {
+            stubServer.stop(0);
+        }
+        System.out.printf("%nconcurrency=%d duration=%ds server latency=%dms pool=%d%n",
+                concurrency, durationSeconds, latencyMillis, connections);
+        report.forEach(System.out::println);
+    }
+
+    //Заглушка сервера: отвечает на любой запрос после задержки, сама не ограничивает параллельность
+    private static HttpServer startStubServer(int latencyMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 20_000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = USER_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static Gateway startGateway(Path jar, String mode, int serverPort, int connections) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--shareit-server.transport.max-connections=" + connections,
+                "--shareit-server.transport.max-connections-per-route=" + connections,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN")
+                .inheritIO()
+                .start();
+        HttpClient client = HttpClient.newHttpClient();
+        URI health = URI.create("http://localhost:" + port + "/actuator/health");
+        for (int i = 0; i < 120; i++) {
+            try {
+                if (client.send(HttpRequest.newBuilder(health).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode() == 200)
+                    return new Gateway(process, port);
+            } catch (IOException e) {
+                //gateway еще стартует
+            }
+            Thread.sleep(500);
+        }
+        process.destroy();
+        throw new IllegalStateException("Gateway (" + mode + ") did not start");
+    }
+
+    private static String runLoad(int gatewayPort, int concurrency, int durationSeconds) throws Exception {
+        String baseUrl = "http://localhost:" + gatewayPort;
+        URI target = URI.create(baseUrl + "/users/1");
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        //Прогрев - 5 секунд той же нагрузкой, результаты не учитываются
+        drive(client, target, concurrency, Duration.ofSeconds(5));
+        Result result = drive(client, target, concurrency, Duration.ofSeconds(durationSeconds));
+
+        //у заглушки метрик нет, тогда -1
+        long peakThreads = (long) metric(client, baseUrl, "jvm.threads.peak");
+        return String.format("%.0f req/s, p50=%.1fms p99=%.1fms max=%.1fms, errors=%d, peak platform threads=%d",
+                result.count / (double) durationSeconds, result.percentile(0.50), result.percentile(0.99),
+                result.percentile(1.0), result.errors, peakThreads);
+    }
+
+    private static Result drive(HttpClient client, URI target, int concurrency, Duration duration)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        int[] errors = new int[concurrency];
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int worker = w;
+                workers.submit(() -> {
+                    long[] own = new long[1024];
+                    int count = 0;
+                    while (running.get()) {
+                        long started = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200)
+                                errors[worker]++;
+                        } catch (Exception e) {
+                            errors[worker]++;
+                        }
+                        if (count == own.length)
+                            own = Arrays.copyOf(own, count * 2);
+                        own[count++] = System.nanoTime() - started;
+                    }
+                    latencies[worker] = own;
+                    counts[worker] = count;
+                });
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+        }
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int position = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, position, counts[w]);
+            position += counts[w];
+        }
+        Arrays.sort(all);
+        return new Result(all, total, Arrays.stream(errors).sum());
+    }
+
+    private static double metric(HttpClient client, String baseUrl, String name) throws Exception {
+        String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = METRIC_VALUE.matcher(body);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+    }
+
+    private static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(stringArg(args, name, String.valueOf(defaultValue)));
+    }
+
+    private static String stringArg(String[] args, String name, String defaultValue) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(name + "="))
+                .map(arg -> arg.substring(name.length() + 1))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    private record Gateway(Process process, int port) {
+    }
+
+    private record Result(long[] sortedNanos, int count, int errors) {
+
+        double percentile(double p) {
+            if (count == 0)
+                return 0;
+            int index = (int) Math.min(count - 1, Math.ceil(p * count) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
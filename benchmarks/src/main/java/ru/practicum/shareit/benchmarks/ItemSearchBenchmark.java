@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearcher;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Сравнение поиска вещей запросом к БД (H2 в режиме PostgreSQL) и по индексу в памяти.
+//sql и index возвращают готовые сущности страницы, т.е. измеряется весь путь поиска в сервисе;
+//indexLookup - только поиск id в индексе, без чтения страницы из БД
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {"drill", "hammer", "saw", "ladder", "tent", "bike", "camera", "guitar",
+            "kayak", "projector", "mixer", "vacuum", "scooter", "grill", "tripod", "stroller"};
+
+    @Param({"10000"})
+    private int itemCount;
+
+    @Param({"drill", "ka", "camera 77", "absent"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemRepository repository;
+
+    private IndexItemSearcher indexSearcher;
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_UPPER=false",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=bench",
+                        "--spring.datasource.password=bench",
+                        "--shareit.search.mode=index",
+                        "--logging.level.root=WARN");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (name, email) VALUES ('Bench user', 'bench@email.com')");
+        Long ownerId = jdbc.queryForObject("SELECT id FROM users", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            String name = WORDS[i % WORDS.length] + " " + i;
+            String description = "Good " + WORDS[(i * 7) % WORDS.length] + " for rent";
+            boolean available = i % 10 != 0;
+            rows.add(new Object[]{name, description, available, ownerId});
+            if (available)
+                index.put((long) i + 1, name, description);
+        }
+        jdbc.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)", rows);
+
+        repository = context.getBean(ItemRepository.class);
+        indexSearcher = context.getBean(IndexItemSearcher.class);
+        indexSearcher.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> sql() {
+        return repository.searchAvailableItems(query, 0, 20);
+    }
+
+    @Benchmark
+    public List<Item> index() {
+        return indexSearcher.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> indexLookup() {
+        return index.search(query, 0, 20);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingOutputMapperImpl;
+import ru.practicum.shareit.item.dto.items.ItemMapper;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.PairOfDate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Сериализация ответов в JSON: одна вещь (с комментариями, последним и следующим бронированием),
+//бронирование и страница бронирований из listSize элементов. ObjectMapper настроен как в Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20"})
+    private int listSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ItemOutputDto item;
+
+    private BookingOutputDto booking;
+
+    private List<BookingOutputDto> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Item entity = BenchmarkData.item(1L, 5);
+        item = ItemMapper.mapItemToItemOutputDto(entity);
+        item.setLastBooking(new PairOfDate(BenchmarkData.NOW.minusDays(2), BenchmarkData.NOW.minusDays(1)));
+        item.setNextBooking(new PairOfDate(BenchmarkData.NOW.plusDays(1), BenchmarkData.NOW.plusDays(2)));
+        bookings = new BookingOutputMapperImpl().mapBookingListToDtoList(BenchmarkData.bookings(entity, listSize));
+        booking = bookings.getFirst();
+    }
+
+    @Benchmark
+    public byte[] item() throws IOException {
+        return objectMapper.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] booking() throws IOException {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingList() throws IOException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
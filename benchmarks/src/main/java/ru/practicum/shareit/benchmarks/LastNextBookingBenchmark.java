@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Выбор последнего и следующего бронирования вещи (ItemServiceImpl.getItemsLastBooking/getItemsNextBooking)
+//на больших списках бронирований. Зависимости сервиса для этих методов не нужны
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LastNextBookingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int bookingCount;
+
+    private final ItemServiceImpl itemService = new ItemServiceImpl(null, null, null, null, null, null, null, null);
+
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookings = BenchmarkData.bookings(BenchmarkData.item(1L, 0), bookingCount);
+    }
+
+    @Benchmark
+    public Booking lastBooking() {
+        return itemService.getItemsLastBooking(bookings);
+    }
+
+    @Benchmark
+    public Booking nextBooking() {
+        return itemService.getItemsNextBooking(bookings);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingOutputMapper;
+import ru.practicum.shareit.booking.dto.BookingOutputMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.items.ItemMapper;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserMapperImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+//Преобразование сущностей в DTO ответа: ручной ItemMapper и мапперы MapStruct (BookingOutputMapper, UserMapper).
+//Списки - listSize элементов, как в ответах списочных эндпоинтов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20"})
+    private int listSize;
+
+    private Item item;
+
+    private List<Item> items;
+
+    private Booking booking;
+
+    private List<Booking> bookings;
+
+    private User user;
+
+    private List<User> users;
+
+    private final BookingOutputMapper bookingOutputMapper = new BookingOutputMapperImpl();
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        item = BenchmarkData.item(1L, 3);
+        items = LongStream.rangeClosed(1, listSize)
+                .mapToObj(id -> BenchmarkData.item(id, 3))
+                .toList();
+        bookings = BenchmarkData.bookings(item, listSize);
+        booking = bookings.getFirst();
+        user = item.getOwner();
+        users = bookings.stream().map(Booking::getBooker).toList();
+    }
+
+    @Benchmark
+    public ItemOutputDto itemToOutputDto() {
+        return ItemMapper.mapItemToItemOutputDto(item);
+    }
+
+    @Benchmark
+    public List<ItemOutputDto> itemListToOutputDtos() {
+        return ItemMapper.mapItemsListToItemOutputDtoList(items);
+    }
+
+    @Benchmark
+    public BookingOutputDto bookingToOutputDto() {
+        return bookingOutputMapper.mapBookingToBookingOutputDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingOutputDto> bookingListToOutputDtos() {
+        return bookingOutputMapper.mapBookingListToDtoList(bookings);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.mapUserToDto(user);
+    }
+
+    @Benchmark
+    public List<UserDto> userListToDtos() {
+        return userMapper.mapUsersListToDtoList(users);
+    }
+}
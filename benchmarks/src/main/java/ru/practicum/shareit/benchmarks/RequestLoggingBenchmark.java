@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.model.BookStatus;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//Стоимость журнала одного запроса POST /bookings на потоке запроса.
+//graph - прежние сообщения: входной DTO и ответ целиком (toString обходит вещь, владельца, запрос и автора);
+//ids - текущие: идентификаторы в INFO, результат в DEBUG (выключен, аргументы не форматируются).
+//sync - вывод в потоке запроса; async - AsyncAppender как в logback-spring.xml, но с блокирующей очередью,
+//чтобы события не отбрасывались и время не занижалось.
+//Вывод - в пустой поток, измеряется форматирование, а не консоль. Аллокации на запрос: -Djmh.args="RequestLogging -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"graph", "ids"})
+    private String style;
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private LoggerContext context;
+
+    private Logger log;
+
+    private final Long bookerId = 2L;
+
+    private BookingInputDto input;
+
+    private BookingOutputDto output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> nullOutput = new OutputStreamAppender<>();
+        nullOutput.setContext(context);
+        nullOutput.setEncoder(encoder);
+        nullOutput.setOutputStream(OutputStream.nullOutputStream());
+        nullOutput.start();
+        Appender<ILoggingEvent> target = nullOutput;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setIncludeCallerData(false);
+            async.addAppender(nullOutput);
+            async.start();
+            target = async;
+        }
+        log = context.getLogger("ru.practicum.shareit.booking.BookingController");
+        log.setAdditive(false);
+        log.setLevel(ch.qos.logback.classic.Level.INFO);
+        log.addAppender(target);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        input = BookingInputDto.builder().itemId(1L).start(start).end(start.plusDays(1)).booker(bookerId)
+                .status("WAITING").build();
+        output = new BookingOutputDto(10L, start, start.plusDays(1), BookStatus.WAITING,
+                1L, "Дрель", "Аккумуляторная дрель с двумя батареями", true,
+                1L, "Owner", "owner@email.com",
+                3L, "Нужна дрель на выходные", start.minusDays(3),
+                2L, "Booker", "booker@email.com",
+                2L, "Booker", "booker@email.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void addNewBooking() {
+        if ("graph".equals(style)) {
+            log.info("\nServer: Получен запрос на добавление бронирования booker {}, {}", bookerId, input);
+            log.info("\nWas added booking {}", output);
+        } else {
+            log.info("Server: Получен запрос на добавление бронирования booker={} item={}", bookerId,
+                    input.getItemId());
+            log.debug("Was added booking id={} status={}", output.getId(), output.getStatus());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//Метрики реестра приложения в текстовом формате Prometheus 0.0.4 (/actuator/prometheus).
+//Реестр Prometheus для Micrometer в сборку не входит, поэтому метрики выводятся из общего реестра.
+//Имена - как у реестра Prometheus: точки заменяются на _, добавляются единица измерения и _total у счетчиков.
+//Таймеры с процентилями выводятся как summary, с границами гистограммы - как histogram (процентили и границы
+//считаются по скользящему окну management.metrics.distribution.expiry)
+@WebEndpoint(id = "prometheus")
+@RequiredArgsConstructor
+public class PrometheusTextEndpoint {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        Map<String, List<Meter>> families = meterRegistry.getMeters().stream()
+                .collect(Collectors.groupingBy(meter -> meter.getId().getName(), TreeMap::new, Collectors.toList()));
+        StringBuilder out = new StringBuilder(32 * 1024);
+        families.values().forEach(meters -> writeFamily(out, meters));
+        return out.toString();
+    }
+
+    private static void writeFamily(StringBuilder out, List<Meter> meters) {
+        Meter first = meters.getFirst();
+        String name = sanitize(first.getId().getName());
+        String help = first.getId().getDescription();
+        switch (first) {
+            case Counter ignored -> {
+                String family = counterName(name, first.getId().getBaseUnit());
+                header(out, family, "counter", help);
+                meters.forEach(meter -> sample(out, family, meter, null, null, ((Counter) meter).count()));
+            }
+            case FunctionCounter ignored -> {
+                String family = counterName(name, first.getId().getBaseUnit());
+                header(out, family, "counter", help);
+                meters.forEach(meter -> sample(out, family, meter, null, null, ((FunctionCounter) meter).count()));
+            }
+            case Timer ignored -> writeDistribution(out, withUnit(name, "seconds"), help, meters,
+                    meter -> ((Timer) meter).takeSnapshot(), TimeUnit.SECONDS);
+            case DistributionSummary ignored -> writeDistribution(out, withUnit(name, first.getId().getBaseUnit()),
+                    help, meters, meter -> ((DistributionSummary) meter).takeSnapshot(), null);
+            case FunctionTimer ignored -> {
+                String family = withUnit(name, "seconds");
+                header(out, family, "summary", help);
+                for (Meter meter : meters) {
+                    FunctionTimer timer = (FunctionTimer) meter;
+                    sample(out, family + "_count", meter, null, null, timer.count());
+                    sample(out, family + "_sum", meter, null, null, timer.totalTime(TimeUnit.SECONDS));
+                }
+            }
+            case LongTaskTimer ignored -> {
+                String family = withUnit(name, "seconds");
+                header(out, family + "_active_count", "gauge", help);
+                meters.forEach(meter -> sample(out, family + "_active_count", meter, null, null,
+                        ((LongTaskTimer) meter).activeTasks()));
+                header(out, family + "_duration_sum", "gauge", help);
+                meters.forEach(meter -> sample(out, family + "_duration_sum", meter, null, null,
+                        ((LongTaskTimer) meter).duration(TimeUnit.SECONDS)));
+            }
+            case TimeGauge ignored -> {
+                String family = withUnit(name, "seconds");
+                header(out, family, "gauge", help);
+                meters.forEach(meter -> sample(out, family, meter, null, null,
+                        ((TimeGauge) meter).value(TimeUnit.SECONDS)));
+            }
+            case Gauge ignored -> {
+                String family = withUnit(name, first.getId().getBaseUnit());
+                header(out, family, "gauge", help);
+                meters.forEach(meter -> sample(out, family, meter, null, null, ((Gauge) meter).value()));
+            }
+            default -> {
+                header(out, name, "untyped", help);
+                for (Meter meter : meters)
+                    for (Measurement measurement : meter.measure())
+                        sample(out, name + "_" + measurement.getStatistic().getTagValueRepresentation(), meter,
+                                null, null, measurement.getValue());
+            }
+        }
+    }
+
+    //Таймеры и распределения: процентили (quantile), границы гистограммы (le), _count, _sum и отдельно _max.
+    //unit = null - значения распределения выводятся как есть
+    private static void writeDistribution(StringBuilder out, String family, String help, List<Meter> meters,
+                                          Function<Meter, HistogramSnapshot> snapshots,
+                                          TimeUnit unit) {
+        Map<Meter, HistogramSnapshot> taken = meters.stream()
+                .collect(Collectors.toMap(meter -> meter, snapshots, (a, b) -> a, LinkedHashMap::new));
+        boolean histogram = taken.values().stream().anyMatch(snapshot -> snapshot.histogramCounts().length > 0);
+        header(out, family, histogram ? "histogram" : "summary", help);
+        taken.forEach((meter, snapshot) -> {
+            for (ValueAtPercentile percentile : snapshot.percentileValues())
+                sample(out, family, meter, "quantile", format(percentile.percentile()),
+                        unit == null ? percentile.value() : percentile.value(unit));
+            if (histogram) {
+                for (CountAtBucket bucket : snapshot.histogramCounts())
+                    sample(out, family + "_bucket", meter, "le",
+                            format(unit == null ? bucket.bucket() : bucket.bucket(unit)), bucket.count());
+                sample(out, family + "_bucket", meter, "le", "+Inf", snapshot.count());
+            }
+            sample(out, family + "_count", meter, null, null, snapshot.count());
+            sample(out, family + "_sum", meter, null, null,
+                    unit == null ? snapshot.total() : snapshot.total(unit));
+        });
+        header(out, family + "_max", "gauge", help);
+        taken.forEach((meter, snapshot) -> sample(out, family + "_max", meter, null, null,
+                unit == null ? snapshot.max() : snapshot.max(unit)));
+    }
+
+    private static void header(StringBuilder out, String family, String type, String help) {
+        if (help != null)
+            out.append("# HELP ").append(family).append(' ')
+                    .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(family).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, Meter meter, String extraLabel, String extraValue,
+                               double value) {
+        out.append(name);
+        List<Tag> tags = meter.getId().getTags();
+        if (!tags.isEmpty() || extraLabel != null) {
+            out.append('{');
+            String separator = "";
+            for (Tag tag : tags) {
+                out.append(separator).append(sanitize(tag.getKey())).append("=\"")
+                        .append(escape(tag.getValue())).append('"');
+                separator = ",";
+            }
+            if (extraLabel != null)
+                out.append(separator).append(extraLabel).append("=\"").append(extraValue).append('"');
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String counterName(String name, String baseUnit) {
+        String family = withUnit(name.endsWith("_total") ? name.substring(0, name.length() - 6) : name, baseUnit);
+        return family + "_total";
+    }
+
+    private static String withUnit(String name, String baseUnit) {
+        if (baseUnit == null || baseUnit.isBlank())
+            return name;
+        String suffix = "_" + sanitize(baseUnit);
+        return name.endsWith(suffix) ? name : name + suffix;
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_:]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value))
+            return "NaN";
+        if (Double.isInfinite(value))
+            return value > 0 ? "+Inf" : "-Inf";
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+//Span трассы в формате Zipkin v2 (его принимают Zipkin и OpenTelemetry Collector с приемником zipkin).
+//Контекст между gateway и сервером передается заголовком W3C traceparent: 00-<traceId>-<id>-<флаги>
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Span {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT_FORMAT = Pattern.compile("00-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+
+    private final String id;
+
+    private final String parentId;
+
+    private final String name;
+
+    private final String kind;
+
+    private final long timestamp;       // начало, микросекунды от эпохи
+
+    private long duration;              // длительность, микросекунды
+
+    private final Map<String, String> localEndpoint;
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    @JsonIgnore
+    private final boolean sampled;
+
+    @JsonIgnore
+    private final long startNanos = System.nanoTime();
+
+    private Span(String traceId, @Nullable String parentId, String name, @Nullable String kind,
+                 Map<String, String> localEndpoint, boolean sampled) {
+        this.traceId = traceId;
+        this.id = randomHex(1);
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.timestamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        this.localEndpoint = localEndpoint;
+        this.sampled = sampled;
+    }
+
+    //Серверный span запроса: продолжает трассу из заголовка traceparent или начинает новую
+    public static Span server(@Nullable String traceparent, String service, String name, double sampleRate) {
+        Map<String, String> endpoint = Map.of("serviceName", service);
+        if (traceparent != null && TRACEPARENT_FORMAT.matcher(traceparent).matches()) {
+            String[] parts = traceparent.split("-");
+            boolean sampled = (HexFormat.fromHexDigits(parts[3]) & 1) == 1;
+            return new Span(parts[1], parts[2], name, "SERVER", endpoint, sampled);
+        }
+        return new Span(randomHex(2), null, name, "SERVER", endpoint,
+                ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    //Вложенный span этапа обработки в том же сервисе
+    public Span child(String name) {
+        return new Span(traceId, id, name, null, localEndpoint, sampled);
+    }
+
+    public Span tag(String key, String value) {
+        tags.put(key, value);
+        return this;
+    }
+
+    public Span finish() {
+        duration = Math.max(1, (System.nanoTime() - startNanos) / 1000);
+        return this;
+    }
+
+    //Заголовок для вызова следующего сервиса: этот span становится родительским
+    public String traceparent() {
+        return "00-" + traceId + "-" + id + (sampled ? "-01" : "-00");
+    }
+
+    @Nullable
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    //Делает span текущим для потока и возвращает предыдущий, который нужно восстановить через restore
+    @Nullable
+    public static Span activate(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return previous;
+    }
+
+    public static void restore(@Nullable Span previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    private static String randomHex(int longs) {
+        StringBuilder hex = new StringBuilder(16 * longs);
+        for (int i = 0; i < longs; i++)
+            hex.append(HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong()));
+        return hex.toString();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.tracing;
+
+//Получатель завершенных span
+public interface SpanExporter {
+
+    void export(Span span);
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+//Серверный span запроса. Идентификаторы трассы кладутся в MDC (traceId, spanId) для журнала
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final String serviceName;
+
+    private final TracingProperties properties;
+
+    private final SpanExporter exporter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = Span.server(request.getHeader(Span.TRACEPARENT), serviceName,
+                request.getMethod() + " " + request.getRequestURI(), properties.getSampleRate());
+        Span previous = Span.activate(span);
+        MDC.put("traceId", span.getTraceId());
+        MDC.put("spanId", span.getId());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Span.restore(previous);
+            MDC.remove("traceId");
+            MDC.remove("spanId");
+            if (span.isSampled()) {
+                //Шаблон пути известен только после выбора обработчика
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                exporter.export(span.finish()
+                        .tag("http.method", request.getMethod())
+                        .tag("http.path", request.getRequestURI())
+                        .tag("http.route", pattern == null ? "" : pattern.toString())
+                        .tag("http.status_code", String.valueOf(response.getStatus())));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.tracing")
+//Настройки трассировки запросов
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    //Доля трасс, которые начинаются в этом сервисе и записываются. Решение передается дальше во флаге traceparent
+    private double sampleRate = 0.01;
+
+    //Файл для span (JSON Zipkin v2 по строкам). Если не задан, span не записываются
+    private String file;
+
+    //Размер файла span, после которого он переименовывается в <file>.1 и запись начинается заново
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+    private int queueSize = 10_000;
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Запись span в файл: одна строка - один span Zipkin v2 в JSON. Для отправки в коллектор строки собираются
+//в массив (jq -s . spans.jsonl | curl -X POST -H 'Content-Type: application/json' -d @- .../api/v2/spans).
+//Файл пишет отдельный поток; при переполнении очереди span отбрасываются (shareit.tracing.dropped),
+//чтобы трассировка не замедляла запросы. Ошибки записи считаются в shareit.tracing.export.errors,
+//после ошибки файл открывается заново при записи следующего span.
+//Когда файл превышает maxFileSize, он переименовывается в <file>.1 (прежняя копия удаляется) и запись
+//начинается в новый файл, так что на диске не больше двух файлов
+@Slf4j
+public class ZipkinFileSpanExporter implements SpanExporter, AutoCloseable {
+
+    //Как часто поток записи проверяет, не пора ли завершаться
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path file;
+
+    private final Path rotated;
+
+    private final long maxFileSize;
+
+    private final BlockingQueue<Span> queue;
+
+    private final Counter dropped;
+
+    private final Counter errors;
+
+    private final Thread worker;
+
+    //Поток записи не прерывается через interrupt: прерывание закрыло бы FileChannel и потеряло span в очереди
+    private volatile boolean running = true;
+
+    //Используется только потоком записи; null - файл закрыт после ошибки
+    private BufferedWriter writer;
+
+    //Размер текущего файла в байтах, ведется потоком записи
+    private long fileSize;
+
+    public ZipkinFileSpanExporter(Path file, long maxFileSize, int queueSize, MeterRegistry meterRegistry)
+            throws IOException {
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        this.file = file;
+        this.rotated = file.resolveSibling(file.getFileName() + ".1");
+        this.maxFileSize = maxFileSize;
+        open();
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.dropped = meterRegistry.counter("shareit.tracing.dropped");
+        this.errors = meterRegistry.counter("shareit.tracing.export.errors");
+        this.worker = Thread.ofPlatform().daemon().name("span-exporter").start(this::drain);
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        Files.move(file, rotated, StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!running || !queue.offer(span))
+            dropped.increment();
+    }
+
+    //После close() поток дописывает оставшиеся в очереди span и закрывает файл
+    private void drain() {
+        try {
+            while (running || !queue.isEmpty()) {
+                Span span = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (span != null)
+                    write(span);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeWriter();
+    }
+
+    private void write(Span span) {
+        try {
+            if (writer == null)
+                open();
+            String line = objectMapper.writeValueAsString(span) + System.lineSeparator();
+            long lineSize = line.getBytes(StandardCharsets.UTF_8).length;
+            if (fileSize > 0 && fileSize + lineSize > maxFileSize)
+                rotate();
+            writer.write(line);
+            fileSize += lineSize;
+            //Сбрасываем буфер, когда очередь опустела, а не после каждой строки
+            if (queue.isEmpty())
+                writer.flush();
+        } catch (IOException e) {
+            //Сообщение пишется один раз на серию ошибок, дальше растет только счетчик
+            if (writer != null)
+                log.warn("\nSpan export to {} failed: {}", file, e.getMessage());
+            errors.increment();
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null)
+            return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("\nSpan file {} was not closed cleanly: {}", file, e.getMessage());
+        }
+        writer = null;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join();
+    }
+}
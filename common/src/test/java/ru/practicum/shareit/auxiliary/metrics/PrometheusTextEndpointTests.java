@@ -0,0 +1,97 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+//Разбор вывода /actuator/prometheus по строкам формата 0.0.4: # TYPE <имя> <тип> и <имя>{<метки>} <значение>
+public class PrometheusTextEndpointTests {
+
+    private static final Pattern TYPE = Pattern.compile("# TYPE (\\S+) (\\S+)");
+
+    private static final Pattern SAMPLE = Pattern.compile("([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{[^}]*})? (\\S+)");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Map<String, String> types = new HashMap<>();
+
+    private final Map<String, Double> samples = new HashMap<>();
+
+    @BeforeEach
+    public void registerMeters() {
+        Counter.builder("shareit.orders").tag("status", "ok").register(meterRegistry).increment(3);
+        Counter.builder("shareit.bytes.sent").baseUnit("bytes").register(meterRegistry).increment(10);
+        Timer timer = Timer.builder("shareit.service")
+                .tag("method", "get")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        timer.record(Duration.ofMillis(100));
+        timer.record(Duration.ofMillis(300));
+        Timer.builder("shareit.slo")
+                .serviceLevelObjectives(Duration.ofMillis(200))
+                .register(meterRegistry)
+                .record(Duration.ofMillis(100));
+        parse(new PrometheusTextEndpoint(meterRegistry).scrape());
+    }
+
+    private void parse(String scrape) {
+        for (String line : scrape.split("\n")) {
+            Matcher type = TYPE.matcher(line);
+            Matcher sample = SAMPLE.matcher(line);
+            if (type.matches())
+                types.put(type.group(1), type.group(2));
+            else if (sample.matches())
+                samples.put(sample.group(1) + (sample.group(2) == null ? "" : sample.group(2)),
+                        Double.valueOf(sample.group(3).replace("+Inf", "Infinity")));
+            else if (!line.startsWith("# HELP "))
+                fail("Line is not in Prometheus text format: " + line);
+        }
+    }
+
+    @Test
+    public void scrape_shouldNameCountersWithTotalSuffixAndUnit() {
+        assertEquals("counter", types.get("shareit_orders_total"));
+        assertEquals(3.0, samples.get("shareit_orders_total{status=\"ok\"}"));
+        assertEquals("counter", types.get("shareit_bytes_sent_bytes_total"));
+        assertEquals(10.0, samples.get("shareit_bytes_sent_bytes_total"));
+        assertFalse(types.containsKey("shareit_orders"));
+    }
+
+    @Test
+    public void scrape_shouldWriteTimerWithPercentilesAsSummaryInSeconds() {
+        assertEquals("summary", types.get("shareit_service_seconds"));
+        assertTrue(samples.containsKey("shareit_service_seconds{method=\"get\",quantile=\"0.5\"}"));
+        assertTrue(samples.get("shareit_service_seconds{method=\"get\",quantile=\"0.95\"}") > 0);
+        assertEquals(2.0, samples.get("shareit_service_seconds_count{method=\"get\"}"));
+        assertEquals(0.4, samples.get("shareit_service_seconds_sum{method=\"get\"}"), 1e-9);
+    }
+
+    @Test
+    public void scrape_shouldWriteMaxAsSeparateGaugeFamily() {
+        assertEquals("gauge", types.get("shareit_service_seconds_max"));
+        assertEquals(0.3, samples.get("shareit_service_seconds_max{method=\"get\"}"), 1e-9);
+        assertEquals("gauge", types.get("shareit_slo_seconds_max"));
+    }
+
+    @Test
+    public void scrape_shouldWriteTimerWithBucketsAsHistogram() {
+        assertEquals("histogram", types.get("shareit_slo_seconds"));
+        assertEquals(1.0, samples.get("shareit_slo_seconds_bucket{le=\"0.2\"}"));
+        assertEquals(1.0, samples.get("shareit_slo_seconds_bucket{le=\"+Inf\"}"));
+        assertEquals(1.0, samples.get("shareit_slo_seconds_count"));
+    }
+}
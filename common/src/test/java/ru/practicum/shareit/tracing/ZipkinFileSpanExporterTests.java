@@ -0,0 +1,86 @@
+package ru.practicum.shareit.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ZipkinFileSpanExporterTests {
+
+    private static final int QUEUE_SIZE = 10_000;
+
+    private static final long MAX_FILE_SIZE = 100L * 1024 * 1024;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static Span span(String name) {
+        return Span.server(null, "test", name, 1.0).finish();
+    }
+
+    @Test
+    @SneakyThrows
+    public void close_shouldWriteAllQueuedSpans(@TempDir Path dir) {
+        Path file = dir.resolve("spans.jsonl");
+        ZipkinFileSpanExporter exporter = new ZipkinFileSpanExporter(file, MAX_FILE_SIZE, QUEUE_SIZE, meterRegistry);
+        for (int i = 0; i < 5_000; i++)
+            exporter.export(span("span-" + i));
+        exporter.close();
+
+        assertEquals(5_000, Files.readAllLines(file).size());
+        assertEquals(0, meterRegistry.counter("shareit.tracing.dropped").count());
+        assertEquals(0, meterRegistry.counter("shareit.tracing.export.errors").count());
+    }
+
+    //Файл не растет больше maxFileSize: старые span уходят в <file>.1, более ранние удаляются
+    @Test
+    @SneakyThrows
+    public void export_shouldRotateFileWhenItExceedsMaxSize(@TempDir Path dir) {
+        Path file = dir.resolve("spans.jsonl");
+        ZipkinFileSpanExporter exporter = new ZipkinFileSpanExporter(file, 10_000, QUEUE_SIZE, meterRegistry);
+        for (int i = 0; i < 1_000; i++)
+            exporter.export(span("span-" + i));
+        exporter.close();
+
+        Path rotated = dir.resolve("spans.jsonl.1");
+        assertTrue(Files.size(file) <= 10_000);
+        assertTrue(Files.size(rotated) <= 10_000);
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(lines.size() - 1).contains("\"span-999\""));
+        assertTrue(Files.readAllLines(rotated).size() + lines.size() < 1_000);
+        assertEquals(2, Files.list(dir).count());
+        assertEquals(0, meterRegistry.counter("shareit.tracing.export.errors").count());
+    }
+
+    //Запись в /dev/full всегда завершается ошибкой: экспорт продолжается, ошибки видны в счетчике
+    @Test
+    @SneakyThrows
+    public void export_shouldCountWriteErrorsAndKeepRunning() {
+        Path full = Path.of("/dev/full");
+        assumeTrue(Files.isWritable(full));
+        ZipkinFileSpanExporter exporter = new ZipkinFileSpanExporter(full, MAX_FILE_SIZE, QUEUE_SIZE, meterRegistry);
+        try {
+            exporter.export(span("first"));
+            awaitErrors(1);
+            exporter.export(span("second"));
+            awaitErrors(2);
+        } finally {
+            exporter.close();
+        }
+    }
+
+    @SneakyThrows
+    private void awaitErrors(int expected) {
+        for (int i = 0; i < 50 && meterRegistry.counter("shareit.tracing.export.errors").count() < expected; i++)
+            Thread.sleep(100);
+        assertEquals(expected, meterRegistry.counter("shareit.tracing.export.errors").count());
+    }
+}
@@ -9,12 +9,15 @@ import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @Slf4j
 @RestControllerAdvice
 public class GatewayErrorHandler {
 
+    public static final String SERVER_UNAVAILABLE = "Server unavailable";
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Object> handlerNumberFormatException(final MethodArgumentTypeMismatchException e) {
         StackTraceElement sElem = e.getStackTrace()[0];
@@ -72,4 +75,12 @@ public class GatewayErrorHandler {
                 HttpStatus.BAD_REQUEST);
     }
 
+    //Сервер недоступен, не ответил вовремя или в пуле нет свободного соединения.
+    //Подробности (адрес сервера, причина) пишутся только в лог, клиент получает общее сообщение
+    @ExceptionHandler(ResourceAccessException.class)
+    public ResponseEntity<Object> handlerResourceAccessException(final ResourceAccessException e) {
+        log.warn("\nResourceAccessException error - Message: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(SERVER_UNAVAILABLE);
+    }
+
 }
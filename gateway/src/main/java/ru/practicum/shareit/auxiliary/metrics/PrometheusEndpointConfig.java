@@ -0,0 +1,15 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//Выдача метрик gateway в формате Prometheus (/actuator/prometheus)
+@Configuration
+public class PrometheusEndpointConfig {
+
+    @Bean
+    public PrometheusTextEndpoint prometheusTextEndpoint(MeterRegistry meterRegistry) {
+        return new PrometheusTextEndpoint(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.auxiliary.validations;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+//Проверка элементов пакетного запроса за один проход: нарушения всех элементов собираются вместе,
+//в сообщении поле указывается с индексом элемента ([2].email: ...)
+public final class BatchValidation {
+
+    //Наибольшее число элементов в одном пакетном запросе
+    public static final int MAX_SIZE = 100;
+
+    private BatchValidation() {
+    }
+
+    public static void validate(Validator validator, List<?> elements, Class<?>... groups) {
+        Set<ConstraintViolation<?>> violations = new LinkedHashSet<>();
+        StringJoiner message = new StringJoiner("; ");
+        for (int i = 0; i < elements.size(); i++) {
+            Object element = elements.get(i);
+            if (element == null) {
+                message.add("[" + i + "]: must not be null");
+                continue;
+            }
+            for (ConstraintViolation<?> violation : validator.validate(element, groups)) {
+                violations.add(violation);
+                message.add("[" + i + "]." + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+        if (message.length() > 0)
+            throw new ConstraintViolationException(message.toString(), violations);
+    }
+}
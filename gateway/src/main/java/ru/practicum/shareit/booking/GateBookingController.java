@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -7,13 +8,17 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.auxiliary.validations.BatchValidation;
 import ru.practicum.shareit.auxiliary.validations.EnumValid;
 import ru.practicum.shareit.auxiliary.validations.OnCreate;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookState;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -22,28 +27,46 @@ import ru.practicum.shareit.booking.dto.BookState;
 public class GateBookingController {
     private final BookingClient bookingClient;
 
+    private final Validator validator;
+
     @GetMapping
-    //Пока сделал пагинацию только для этого ендпойнта
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive long userId,
                                               @RequestParam(name = "state", defaultValue = "all")
                                               @EnumValid(enumClass = BookState.class) String state,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("\nGateway: Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @Size(max = 200) @RequestParam(name = "cursor", required = false)
+                                              String cursor) {
+        //При наличии cursor (в т.ч. пустого) используется keyset-пагинация, from игнорируется
+        if (cursor != null) {
+            log.info("Gateway: Get booking with state {}, userId={}, cursor={}, size={}", state, userId, cursor, size);
+            return bookingClient.getBookingsAfter(userId, state, cursor, size);
+        }
+        log.info("Gateway: Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
     public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive long userId,
                                            @RequestBody @Validated(OnCreate.class) BookItemRequestDto requestDto) {
-        log.info("\nGateway: Creating booking {}, userId={}", requestDto, userId);
+        log.info("Gateway: Creating booking item={}, userId={}", requestDto.getItemId(), userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    //Пакетное бронирование от одного пользователя
+    @PostMapping("/batch")
+    public ResponseEntity<Object> bookItems(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive long userId,
+                                            @RequestBody @Size(min = 1, max = BatchValidation.MAX_SIZE)
+                                            List<BookItemRequestDto> requestDtos) {
+        log.info("Gateway: Creating {} bookings, userId={}", requestDtos.size(), userId);
+        BatchValidation.validate(validator, requestDtos, OnCreate.class);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive long userId,
                                              @PathVariable(name = "bookingId") @NotNull @Positive Long bookingId) {
-        log.info("\nGateway: Get booking {}, userId={}", bookingId, userId);
+        log.info("Gateway: Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
@@ -52,7 +75,7 @@ public class GateBookingController {
     public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                                  @PathVariable(name = "bookingId") @NotNull @Positive Long bookingId,
                                                  @RequestParam @NotNull Boolean approved) {
-        log.info("\nGateway: Получен запрос на подтверждение бронирования owner {}, booking {}, approve {}",
+        log.info("Gateway: Получен запрос на подтверждение бронирования owner {}, booking {}, approve {}",
                 id, bookingId, approved);
         return bookingClient.patchBooking(id, bookingId, approved);
     }
@@ -61,9 +84,12 @@ public class GateBookingController {
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                                     @RequestParam(defaultValue = "ALL")
-                                                    @EnumValid(enumClass = BookState.class) String state) {
-        log.info("\nGateway: Получен запрос на просмотр всех бронирований собственника {} state {}", id, state);
-        return bookingClient.getOwnersBookings(id, state);
+                                                    @EnumValid(enumClass = BookState.class) String state,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Gateway: Получен запрос на просмотр всех бронирований собственника {} state {} from {} size {}",
+                id, state, from, size);
+        return bookingClient.getOwnersBookings(id, state, from, size);
     }
 
 }
\ No newline at end of file
@@ -6,17 +6,44 @@ import java.util.Map;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.tracing.Span;
 
+//Ответ сервера передается клиенту как есть: тело копируется байтами, без разбора JSON в дерево объектов
 public class BaseClient {
+    //Курсор следующей страницы keyset-пагинации бронирований (BookingController.NEXT_CURSOR_HEADER на сервере)
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    //Заголовки ответа сервера, которые имеют смысл для клиента gateway
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.LOCATION, NEXT_CURSOR_HEADER);
+
+    //Ошибки сервера не превращаются в исключения и возвращаются тем же путем, что и успешные ответы
+    private static final ResponseErrorHandler PASSTHROUGH_ERRORS = new ResponseErrorHandler() {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    };
+
     protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
+    protected final GatewayResponseCache responseCache;
+
+    public BaseClient(RestTemplate rest, GatewayResponseCache responseCache) {
         this.rest = rest;
+        this.rest.setErrorHandler(PASSTHROUGH_ERRORS);
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +58,43 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    //GET через кэш группы group. userId передается, только если ответ зависит от пользователя.
+    //Свежий ответ отдается из кэша, устаревший с ETag проверяется на сервере через If-None-Match
+    protected ResponseEntity<Object> cachedGet(String group, String path, @Nullable Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        if (!responseCache.isEnabled()) {
+            return get(path, userId, parameters);
+        }
+        String key = GatewayResponseCache.key(group, path, parameters, userId);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && cached.isFresh()) {
+            return cached.toResponse();
+        }
+        return responseCache.coalesce(group, key, generation ->
+                fetchAndCache(group, key, generation, cached, path, userId, parameters));
+    }
+
+    private ResponseEntity<Object> fetchAndCache(String group, String key, long generation,
+                                                 @Nullable CachedResponse cached, String path,
+                                                 @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+        ResponseEntity<byte[]> response = exchange(HttpMethod.GET, path, parameters, new HttpEntity<>(headers));
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            responseCache.put(key, cached.refreshed(responseCache.freshUntil(group)), generation);
+            return cached.toResponse();
+        }
+
+        ResponseEntity<Object> gatewayResponse = prepareGatewayResponse(response);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK)) {
+            responseCache.put(key, new CachedResponse(gatewayResponse.getStatusCode(), gatewayResponse.getHeaders(),
+                    response.getBody(), responseCache.freshUntil(group)), generation);
+        }
+        return gatewayResponse;
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -81,18 +145,15 @@ public class BaseClient {
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return prepareGatewayResponse(exchange(method, path, parameters, requestEntity));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private ResponseEntity<byte[]> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                            HttpEntity<?> requestEntity) {
+        if (parameters != null) {
+            return rest.exchange(path, method, requestEntity, byte[].class, parameters);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return rest.exchange(path, method, requestEntity, byte[].class);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -102,15 +163,22 @@ public class BaseClient {
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        //Контекст трассы: span сервера станет дочерним для span запроса в gateway
+        Span span = Span.current();
+        if (span != null) {
+            headers.set(Span.TRACEPARENT, span.traceparent());
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        for (String header : PASSTHROUGH_HEADERS) {
+            List<String> values = response.getHeaders().get(header);
+            if (values != null) {
+                responseBuilder.header(header, values.toArray(String[]::new));
+            }
+        }
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+//Сохраненный ответ сервера: тело и передаваемые клиенту заголовки не изменяются после создания
+record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long freshUntilNanos) {
+
+    boolean isFresh() {
+        return System.nanoTime() - freshUntilNanos < 0;
+    }
+
+    String etag() {
+        return headers.getETag();
+    }
+
+    CachedResponse refreshed(long freshUntilNanos) {
+        return new CachedResponse(status, headers, body, freshUntilNanos);
+    }
+
+    ResponseEntity<Object> toResponse() {
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+//Кэш GET-ответов сервера. Ключ - группа эндпоинтов, шаблон пути, параметры и пользователь, если ответ от него зависит.
+//Запись сбрасывается записывающими запросами, прошедшими через этот gateway; изменения через другие экземпляры
+//gateway становятся видны не позже ttl группы
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class GatewayResponseCache {
+
+    //Вещь по id: бронирования, комментарии и имена их авторов
+    public static final String ITEM = "item";
+
+    public static final String SEARCH = "search";
+
+    //Запросы вещей вместе с вещами, созданными в ответ на них
+    public static final String REQUESTS = "requests";
+
+    private static final String SEPARATOR = "|";
+
+    private final ResponseCacheProperties properties;
+
+    private final Cache<String, CachedResponse> cache;
+
+    //Увеличивается при каждом сбросе. Ответ, запрошенный до сброса, в кэш не попадает
+    private final AtomicLong generation = new AtomicLong();
+
+    //Запросы к серверу, выполняемые сейчас: одинаковые одновременные промахи кэша ждут один ответ
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public GatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getMaxStale())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    static String key(String group, String path, @Nullable Map<String, Object> parameters,
+                      @Nullable Long userId) {
+        return group + SEPARATOR + path + SEPARATOR + (parameters == null ? "" : new TreeMap<>(parameters))
+                + SEPARATOR + (userId == null ? "" : userId);
+    }
+
+    long freshUntil(String group) {
+        return System.nanoTime() + properties.getTtl().getOrDefault(group, properties.getDefaultTtl()).toNanos();
+    }
+
+    @Nullable
+    CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(String key, CachedResponse response, long expectedGeneration) {
+        cache.put(key, response);
+        //Сброс мог пройти, пока ответ шел от сервера: тогда ответ уже может быть устаревшим
+        if (generation.get() != expectedGeneration)
+            cache.invalidate(key);
+    }
+
+    //В ключ ожидания входит поколение: запрос после сброса не присоединяется к запросу, начатому до него,
+    //и получает ответ, в котором уже видна запись. fetch получает поколение, с которым ответ кладется в кэш.
+    //Метрики shareit.singleflight.calls и shareit.singleflight.coalesced с тегом name - группой
+    ResponseEntity<Object> coalesce(String group, String key, LongFunction<ResponseEntity<Object>> fetch) {
+        meterRegistry.counter("shareit.singleflight.calls", "name", group).increment();
+        long flightGeneration = generation.get();
+        String flightKey = key + SEPARATOR + flightGeneration;
+        CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(flightKey, own);
+        if (existing != null) {
+            meterRegistry.counter("shareit.singleflight.coalesced", "name", group).increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                throw e;
+            }
+        }
+        try {
+            ResponseEntity<Object> response = fetch.apply(flightGeneration);
+            own.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, own);
+        }
+    }
+
+    //Все ответы группы
+    public void invalidate(String group) {
+        invalidatePrefix(group + SEPARATOR);
+    }
+
+    //Ответы группы по одному пути, для всех параметров и пользователей
+    public void invalidate(String group, String path) {
+        invalidatePrefix(group + SEPARATOR + path + SEPARATOR);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void invalidatePrefix(String prefix) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+//Настройки кэша GET-ответов сервера в gateway
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maxEntries = 10_000;
+
+    //Сколько ответ считается свежим и отдается без обращения к серверу, по группам эндпоинтов
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    //Сколько устаревший ответ с ETag хранится для проверки через If-None-Match
+    private Duration maxStale = Duration.ofMinutes(10);
+}
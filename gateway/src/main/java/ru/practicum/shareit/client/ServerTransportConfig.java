@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+
+//Единый транспорт для всех клиентов gateway: один пул соединений к серверу вместо отдельного пула в каждом клиенте
+@Configuration
+@EnableConfigurationProperties(ServerTransportProperties.class)
+public class ServerTransportConfig {
+
+    public static final String METRICS_NAME = "shareit-server";
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.transport.protocol", havingValue = "http1", matchIfMissing = true)
+    static class Http1Transport {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager serverConnectionManager(ServerTransportProperties properties) {
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                    .setMaxConnTotal(properties.getMaxConnections())
+                    .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                            .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                            .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                            .build())
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                    ServerTransportProperties properties) {
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(properties.getLeaseTimeout()))
+                            .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                            .build())
+                    .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                    .evictExpiredConnections()
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        }
+
+        //httpcomponents.httpclient.pool.* - занятые, свободные и ожидающие соединения пула
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, METRICS_NAME);
+        }
+    }
+
+    //HTTP/2 мультиплексирует запросы в одном соединении, поэтому лимиты пула здесь не применяются.
+    //На сервере должен быть включен server.http2.enabled
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.transport.protocol", havingValue = "h2c")
+    static class H2cTransport {
+
+        @Bean
+        public ClientHttpRequestFactory serverRequestFactory(ServerTransportProperties properties) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(properties.getConnectTimeout())
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(properties.getReadTimeout());
+            return requestFactory;
+        }
+    }
+}
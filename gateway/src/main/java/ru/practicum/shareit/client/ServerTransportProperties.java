@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.transport")
+//Настройки общего транспорта gateway -> server
+public class ServerTransportProperties {
+
+    //HTTP1 - пул keep-alive соединений Apache HttpClient, H2C - HTTP/2 без TLS через java.net.http.HttpClient
+    private Protocol protocol = Protocol.HTTP1;
+
+    //Все клиенты ходят на один сервер, поэтому лимит на маршрут по умолчанию совпадает с общим
+    private int maxConnections = 200;
+
+    private int maxConnectionsPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    //Сколько ждать свободного соединения из пула
+    private Duration leaseTimeout = Duration.ofSeconds(1);
+
+    //Простаивающие дольше соединения закрываются фоновым потоком
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    //Перед повторным использованием соединение, простоявшее дольше, проверяется
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    public enum Protocol {
+        HTTP1,
+        H2C
+    }
+}
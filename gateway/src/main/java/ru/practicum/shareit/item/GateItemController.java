@@ -2,17 +2,26 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.auxiliary.validations.BatchValidation;
 import ru.practicum.shareit.auxiliary.validations.NotEmptyItemDto;
 import ru.practicum.shareit.auxiliary.validations.OnCreate;
 import ru.practicum.shareit.item.dto.CommentInputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -22,46 +31,73 @@ public class GateItemController {
 
     private final ItemClient itemClient;
 
+    private final Validator validator;
+
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                              @Validated(OnCreate.class) @Valid @RequestBody ItemDto itemDto) {
-        log.info("\nGateway: Получен запрос на добавление item {} от user {}", itemDto, id);
+        log.info("Gateway: Получен запрос на добавление item от user={}", id);
         itemDto.setOwner(id);
         return itemClient.createItem(id, itemDto);
     }
 
+    //Пакетное создание вещей одного владельца
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
+                                              @RequestBody @Size(min = 1, max = BatchValidation.MAX_SIZE)
+                                              List<ItemDto> itemDtos) {
+        log.info("Gateway: Получен запрос на добавление {} items от user {}", itemDtos.size(), id);
+        BatchValidation.validate(validator, itemDtos, OnCreate.class, Default.class);
+        itemDtos.forEach(itemDto -> itemDto.setOwner(id));
+        return itemClient.createItems(id, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long owner,
                                              @PathVariable @NotNull @Positive Long itemId,
                                              @RequestBody @Valid @NotEmptyItemDto ItemDto itemDto) {
-        log.info("\nGateway: Получен запрос на изменение item {} данных на {} от user {}", itemId, itemDto, owner);
+        log.info("Gateway: Получен запрос на изменение item={} от user={}", itemId, owner);
         return itemClient.updateItem(owner, itemId, itemDto);
     }
 
     @DeleteMapping("/{itemId}")
     public ResponseEntity<Object> deleteItem(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                              @PathVariable @NotNull @Positive Long itemId) {
-        log.info("\nGateway: Получен запрос на удаление item {} от user {}", itemId, id);
+        log.info("Gateway: Получен запрос на удаление item {} от user {}", itemId, id);
         return itemClient.deleteItem(id, itemId);
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@PathVariable @NotNull @Positive Long itemId) {
-        log.info("\nПолучен запрос на просмотр данных item {}", itemId);
+        log.info("Получен запрос на просмотр данных item {}", itemId);
         return itemClient.getItem(itemId);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllItemsOfOwner(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id) {
-        log.info("\nGateway: Получен запрос на получение всех items пользователя {}", id);
+        log.info("Gateway: Получен запрос на получение всех items пользователя {}", id);
         return itemClient.getItems(id);
     }
 
-    ///items/search?text={text}
+    ///items/{itemId}/availability?from={from}&to={to}
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable @NotNull @Positive Long itemId,
+                                                          @RequestParam(name = "from")
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                          @RequestParam(name = "to")
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Gateway: Получен запрос на проверку занятости item {} с {} по {}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
+    ///items/search?text={text}&from={from}&size={size}
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsByContext(@RequestParam(name = "text") String query) {
-        log.info("\nGateway: Получен запрос на получение всех items по контексту ...{}...", query);
-        return itemClient.getItems(query);
+    public ResponseEntity<Object> getItemsByContext(@RequestParam(name = "text") String query,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Gateway: Получен запрос на получение всех items по контексту ...{}... from {} size {}",
+                query, from, size);
+        return itemClient.getItems(query, from, size);
     }
 
     //POST /items/{itemId}/comment
@@ -69,7 +105,7 @@ public class GateItemController {
     public ResponseEntity<Object> addNewComment(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                                 @PathVariable @NotNull @Positive Long itemId,
                                                 @RequestBody @Valid CommentInputDto newComment) {
-        log.info("\nGateway: Получен запрос на добавление комментария от пользователя {} по item {} textsize {}",
+        log.info("Gateway: Получен запрос на добавление комментария от пользователя {} по item {} textsize {}",
                 id, itemId, newComment.getText().length());
         return itemClient.addNewComment(id, itemId, newComment);
     }
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentInputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -16,40 +21,79 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
     public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        responseCache.invalidate(GatewayResponseCache.SEARCH);
+        responseCache.invalidate(GatewayResponseCache.REQUESTS);
+        return response;
+    }
+
+    public ResponseEntity<Object> createItems(long userId, List<ItemDto> itemDtos) {
+        ResponseEntity<Object> response = post("/batch", userId, itemDtos);
+        responseCache.invalidate(GatewayResponseCache.SEARCH);
+        responseCache.invalidate(GatewayResponseCache.REQUESTS);
+        return response;
     }
 
     public ResponseEntity<Object> updateItem(long id, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, id, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, id, itemDto);
+        invalidateItem(itemId);
+        return response;
     }
 
     public ResponseEntity<Object> deleteItem(long id, long itemId) {
-        return delete("/" + itemId, id);
+        ResponseEntity<Object> response = delete("/" + itemId, id);
+        invalidateItem(itemId);
+        return response;
     }
 
     public ResponseEntity<Object> getItem(long itemId) {
-        return get("/" + itemId);
+        return cachedGet(GatewayResponseCache.ITEM, "/" + itemId, null, null);
     }
 
     public ResponseEntity<Object> getItems(long id) {
         return get("", id);
     }
 
-    public ResponseEntity<Object> getItems(String text) {
-        return get("/search?text=" + text);
+    public ResponseEntity<Object> getItems(String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return cachedGet(GatewayResponseCache.SEARCH, "/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> addNewComment(long id, long itemId, CommentInputDto comment) {
-        return post("/" + itemId + "/comment", id, comment);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", id, comment);
+        responseCache.invalidate(GatewayResponseCache.ITEM, "/" + itemId);
+        return response;
+    }
+
+    //Вещь видна в ответе по id, в поиске и в ответах на запросы
+    private void invalidateItem(long itemId) {
+        responseCache.invalidate(GatewayResponseCache.ITEM, "/" + itemId);
+        responseCache.invalidate(GatewayResponseCache.SEARCH);
+        responseCache.invalidate(GatewayResponseCache.REQUESTS);
     }
 }
@@ -24,7 +24,7 @@ public class GateItemRequestController {
     //Основная часть запроса — текст запроса, в котором пользователь описывает, какая именно вещь ему нужна.
     public ResponseEntity<Object> addNewRequest(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                                 @RequestBody @Valid RequestDto requestDto) {
-        log.info("\nGateway: Получен запрос на поиск item {}", requestDto);
+        log.info("Gateway: Получен запрос на поиск item от user={}", id);
         return requestClient.addNewRequest(id, requestDto);
     }
 
@@ -35,7 +35,7 @@ public class GateItemRequestController {
     // можно будет получить подробную информацию о каждой из них. Запросы должны возвращаться отсортированными от
     // более новых к более старым.
     public ResponseEntity<Object> getUsersRequests(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id) {
-        log.info("\nGateway: Пользователь {} хочет получить список своих запросов", id);
+        log.info("Gateway: Пользователь {} хочет получить список своих запросов", id);
         return requestClient.getUsersRequests(id);
     }
 
@@ -44,7 +44,7 @@ public class GateItemRequestController {
     //С помощью этого эндпоинта пользователи смогут просматривать существующие запросы, на которые они
     //могли бы ответить. Запросы сортируются по дате создания от более новых к более старым.
     public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id) {
-        log.info("\nGateway: Пользователь {} хочет получить список чужих запросов", id);
+        log.info("Gateway: Пользователь {} хочет получить список чужих запросов", id);
         return requestClient.getAllRequests(id);
     }
 
@@ -54,7 +54,7 @@ public class GateItemRequestController {
     // любой пользователь
     public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") @NotNull @Positive Long id,
                                                  @PathVariable(name = "requestId") @NotNull @Positive Long requestId) {
-        log.info("\nGateway: Пользователь {} хочет получить информацию по запросу {}", id, requestId);
+        log.info("Gateway: Пользователь {} хочет получить информацию по запросу {}", id, requestId);
         return requestClient.getRequestById(id, requestId);
     }
 
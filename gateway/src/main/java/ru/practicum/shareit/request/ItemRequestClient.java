@@ -4,10 +4,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 @Service
@@ -16,28 +17,34 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory serverRequestFactory,
+                             GatewayResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
     public ResponseEntity<Object> addNewRequest(long id, RequestDto requestDto) {
-        return post("", id, requestDto);
+        ResponseEntity<Object> response = post("", id, requestDto);
+        responseCache.invalidate(GatewayResponseCache.REQUESTS);
+        return response;
     }
 
+    //Пользователь входит в ключ кэша: списки зависят от него, а сервер проверяет его существование
     public ResponseEntity<Object> getUsersRequests(long id) {
-        return get("", id);
+        return cachedGet(GatewayResponseCache.REQUESTS, "", id, null);
     }
 
     public ResponseEntity<Object> getAllRequests(long id) {
-        return get("/all", id);
+        return cachedGet(GatewayResponseCache.REQUESTS, "/all", id, null);
     }
 
     public ResponseEntity<Object> getRequestById(long id, long requestId) {
-        return get("/" + requestId, id);
+        return cachedGet(GatewayResponseCache.REQUESTS, "/" + requestId, id, null);
     }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+//Трассировка запросов (shareit.tracing.enabled): контекст передается серверу в заголовке traceparent (BaseClient)
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(name = "shareit.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(TracingProperties properties, MeterRegistry meterRegistry) throws IOException {
+        if (properties.getFile() == null || properties.getFile().isBlank())
+            return span -> { };
+        return new ZipkinFileSpanExporter(Path.of(properties.getFile()), properties.getMaxFileSize().toBytes(),
+                properties.getQueueSize(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(@Value("${spring.application.name:shareit-gateway}")
+                                                               String serviceName,
+                                                               TracingProperties properties, SpanExporter exporter) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(serviceName, properties, exporter));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
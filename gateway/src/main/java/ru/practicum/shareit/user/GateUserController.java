@@ -1,18 +1,23 @@
 package ru.practicum.shareit.user;
 
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.auxiliary.validations.BatchValidation;
 import ru.practicum.shareit.auxiliary.validations.NotEmptyUserDto;
 import ru.practicum.shareit.auxiliary.validations.OnCreate;
 import ru.practicum.shareit.auxiliary.validations.OnUpdate;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -23,34 +28,45 @@ public class GateUserController {
     @Autowired
     private final UserClient userClient;
 
+    private final Validator validator;
+
     @PostMapping
     public ResponseEntity<Object> createUser(@Validated(OnCreate.class) @RequestBody UserDto userDto) {
-        log.info("\nGateway: Получен запрос на создание user {}", userDto);
+        log.info("Gateway: Получен запрос на создание user");
         return userClient.createUser(userDto);
     }
 
+    //Пакетное создание: весь пакет проверяется здесь, сервер возвращает результат по каждому элементу
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createUsers(@RequestBody @Size(min = 1, max = BatchValidation.MAX_SIZE)
+                                              List<UserDto> userDtos) {
+        log.info("Gateway: Получен запрос на создание {} user", userDtos.size());
+        BatchValidation.validate(validator, userDtos, OnCreate.class);
+        return userClient.createUsers(userDtos);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<Object> updateUser(@PathVariable(name = "userId") @NotNull @Positive Long id,
                                              @Validated(OnUpdate.class) @NotEmptyUserDto @RequestBody UserDto userDto) {
-        log.info("\nGateway: Получен запрос на изменение данных {} user {}", userDto, id);
+        log.info("Gateway: Получен запрос на изменение данных user={}", id);
         return userClient.updateUser(id, userDto);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteUser(@PathVariable @NotNull @Positive Long id) {
-        log.info("\nGateway: Получен запрос на удаление данных user {}", id);
+        log.info("Gateway: Получен запрос на удаление данных user {}", id);
         return userClient.deleteUser(id);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Object> getUserById(@PathVariable @NotNull @Positive Long id) {
-        log.info("\nGateway: Получен запрос получение данных user {}", id);
+        log.info("Gateway: Получен запрос получение данных user {}", id);
         return userClient.getUserById(id);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllUsers() {
-        log.info("\nПолучен запрос получение всех user");
+        log.info("Получен запрос получение всех user");
         return userClient.getAllUsers();
     }
 
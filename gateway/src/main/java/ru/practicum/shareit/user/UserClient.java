@@ -4,23 +4,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory,
+                      GatewayResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> serverRequestFactory)
+                        .build(),
+                responseCache
         );
     }
 
@@ -28,12 +34,23 @@ public class UserClient extends BaseClient {
         return post("", userDto);
     }
 
+    public ResponseEntity<Object> createUsers(List<UserDto> userDtos) {
+        return post("/batch", userDtos);
+    }
+
+    //Имя пользователя входит в комментарии к вещам и в результаты поиска
     public ResponseEntity<Object> updateUser(long id, UserDto userDto) {
-        return patch("/" + id, userDto);
+        ResponseEntity<Object> response = patch("/" + id, userDto);
+        responseCache.invalidate(GatewayResponseCache.ITEM);
+        responseCache.invalidate(GatewayResponseCache.SEARCH);
+        return response;
     }
 
+    //Вместе с пользователем удаляются его вещи, запросы и бронирования
     public ResponseEntity<Object> deleteUser(long id) {
-        return delete("/" + id);
+        ResponseEntity<Object> response = delete("/" + id);
+        responseCache.invalidateAll();
+        return response;
     }
 
     public ResponseEntity<Object> getUserById(long id) {
@@ -26,6 +26,7 @@ import ru.practicum.shareit.booking.GateBookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -50,10 +51,10 @@ public class GatewayBookingControllerTests {
     private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     private final LocalDateTime startDate =
-            LocalDateTime.of(2025, 3, 1, 15, 0, 0);
+            LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
 
     private final LocalDateTime endDate =
-            LocalDateTime.of(2025, 3, 10, 15, 0, 0);
+            LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
 
     @SneakyThrows
     @Test
@@ -375,7 +376,7 @@ public class GatewayBookingControllerTests {
     public void getOwnersBookings_whenValidPathVariableAndHeaderAndParam_thenGetList() {
         long header = 1L;
         String state = "Current";
-        when(client.getOwnersBookings(anyLong(), anyString()))
+        when(client.getOwnersBookings(anyLong(), anyString(), anyInt(), anyInt()))
                 .thenReturn(ResponseEntity.ok().body(List.of()));
 
         RequestBuilder request = MockMvcRequestBuilders
@@ -387,7 +388,23 @@ public class GatewayBookingControllerTests {
 
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(client, times(1)).getOwnersBookings(header, state);
+        verify(client, times(1)).getOwnersBookings(header, state, 0, 10);
+    }
+
+    @Test
+    public void shouldNotGetOwnersBookingsWithNegativeFrom() throws Exception {
+        long header = 1L;
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/bookings/owner")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", header)
+                .param("state", "ALL")
+                .param("from", String.valueOf(-1))
+                .param("size", String.valueOf(10))
+                .contentType(MediaType.APPLICATION_JSON);
+        mockMvc.perform(request).andExpect(status().isBadRequest())
+                .andExpect(result ->
+                        assertInstanceOf(ConstraintViolationException.class, result.getResolvedException()));
     }
 
     @Test
@@ -446,6 +463,27 @@ public class GatewayBookingControllerTests {
         verify(client, times(1)).getBookings(header, state, from, size);
     }
 
+    @SneakyThrows
+    @Test
+    public void getBookings_whenCursorPresent_thenUseKeysetMode() {
+        long header = 1L;
+        when(client.getBookingsAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(ResponseEntity.ok().body(List.of()));
+
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/bookings")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", header)
+                .param("state", "ALL")
+                .param("cursor", "")
+                .param("size", String.valueOf(5))
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(request).andExpect(status().isOk());
+        verify(client, times(1)).getBookingsAfter(header, "ALL", "", 5);
+        verify(client, never()).getBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
     @Test
     public void shouldNotGetListWithInvalidFrom() throws Exception {
         Long header = 1L;
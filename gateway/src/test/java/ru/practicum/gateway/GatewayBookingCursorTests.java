@@ -0,0 +1,73 @@
+package ru.practicum.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.BaseClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Курсор следующей страницы бронирований передается клиенту gateway
+@SpringBootTest(classes = ShareItGateway.class, properties = "shareit.tracing.file=")
+@AutoConfigureMockMvc
+public class GatewayBookingCursorTests {
+
+    private static final String NEXT_CURSOR = "MjAzMC0wMS0wMVQxMjowMF8xMA";
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/bookings", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add(BaseClient.NEXT_CURSOR_HEADER, NEXT_CURSOR);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @SneakyThrows
+    public void getBookingsAfter_shouldPassNextCursorHeader() {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BaseClient.NEXT_CURSOR_HEADER, NEXT_CURSOR))
+                .andExpect(content().json("[]"));
+    }
+}
@@ -23,6 +23,7 @@ import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentInputDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -353,11 +354,45 @@ public class GatewayItemControllerTests {
         verify(client, times(1)).getItems(header);
     }
 
+    @SneakyThrows
+    @Test
+    public void getItemAvailability_whenValidParams_thenGet() {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(client.getItemAvailability(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(ResponseEntity.ok().build());
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/items/{itemId}/availability", itemId)
+                .param("from", "2030-01-01T10:00:00")
+                .param("to", "2030-01-02T10:00:00")
+                .accept(MediaType.APPLICATION_JSON);
+        MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        assertNotNull(mvcResult.getResponse());
+        verify(client, times(1)).getItemAvailability(itemId, from, from.plusDays(1));
+    }
+
+    @SneakyThrows
+    @Test
+    public void getItemAvailability_whenDateInvalidOrMissing_thenBadRequest() {
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/items/{itemId}/availability", 1L)
+                .param("from", "tomorrow")
+                .param("to", "2030-01-02T10:00:00")
+                .accept(MediaType.APPLICATION_JSON);
+        mockMvc.perform(request).andExpect(status().isBadRequest());
+        request = MockMvcRequestBuilders
+                .get("/items/{itemId}/availability", 1L)
+                .param("from", "2030-01-01T10:00:00")
+                .accept(MediaType.APPLICATION_JSON);
+        mockMvc.perform(request).andExpect(status().isBadRequest());
+        verify(client, never()).getItemAvailability(anyLong(), any(), any());
+    }
+
     @SneakyThrows
     @Test
     public void getItemsByContext_AlwaysGet() {
         String text = "nothing";
-        when(client.getItems(anyString())).thenReturn(ResponseEntity.ok().body(List.of()));
+        when(client.getItems(anyString(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok().body(List.of()));
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/items/search")
                 .accept(MediaType.APPLICATION_JSON)
@@ -365,7 +400,7 @@ public class GatewayItemControllerTests {
                 .contentType(MediaType.APPLICATION_JSON);
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(client, times(1)).getItems(text);
+        verify(client, times(1)).getItems(text, 0, 20);
     }
 
     @SneakyThrows
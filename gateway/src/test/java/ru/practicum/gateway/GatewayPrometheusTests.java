@@ -0,0 +1,38 @@
+package ru.practicum.gateway;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItGateway;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Метрики gateway в формате Prometheus
+@SpringBootTest(classes = ShareItGateway.class, properties = "shareit.tracing.file=")
+@AutoConfigureMockMvc
+public class GatewayPrometheusTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @SneakyThrows
+    public void prometheusEndpoint_shouldExposeRequestPercentilesAndServerPool() {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        String body = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("# TYPE http_server_requests_seconds summary"));
+        assertTrue(body.contains("quantile=\"0.95\""));
+        assertTrue(body.contains("httpcomponents_httpclient_pool_total_max"));
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+//Проверка кэша GET-ответов gateway на заглушке сервера, которая записывает полученные запросы
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit-server.cache.ttl.item=1h", "shareit-server.cache.ttl.requests=1h",
+                "shareit-server.cache.ttl.search=0s"})
+public class GatewayResponseCacheTests {
+
+    private static final String ETAG = "\"v1\"";
+
+    //Сервер отвечает на GET по этому пути с задержкой, чтобы одновременные запросы успели совпасть
+    private static final String SLOW_PATH = "/items/99";
+
+    //Запросы, дошедшие до сервера: метод, путь и If-None-Match
+    private static final List<String> serverCalls = new CopyOnWriteArrayList<>();
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private ItemRequestClient requestClient;
+
+    @Autowired
+    private GatewayResponseCache responseCache;
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            serverCalls.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                    + (ifNoneMatch == null ? "" : " " + ifNoneMatch));
+            exchange.getRequestBody().readAllBytes();
+            if (SLOW_PATH.equals(exchange.getRequestURI().getPath()) && "GET".equals(exchange.getRequestMethod()))
+                pause();
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = ("{\"path\":\"" + exchange.getRequestURI().getPath() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        //Запросы обрабатываются параллельно: запись не ждет окончания медленного чтения
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+        return httpServer;
+    }
+
+    @SneakyThrows
+    private static void pause() {
+        Thread.sleep(300);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void clear() {
+        responseCache.invalidateAll();
+        serverCalls.clear();
+    }
+
+    @Test
+    void getItem_shouldBeServedFromCacheUntilItemIsUpdated() {
+        itemClient.getItem(1L);
+        ResponseEntity<Object> cached = itemClient.getItem(1L);
+        assertEquals(HttpStatus.OK, cached.getStatusCode());
+        assertArrayEquals("{\"path\":\"/items/1\"}".getBytes(StandardCharsets.UTF_8),
+                assertInstanceOf(byte[].class, cached.getBody()));
+        assertEquals(ETAG, cached.getHeaders().getETag());
+        assertEquals(List.of("GET /items/1"), serverCalls);
+
+        itemClient.updateItem(1L, 1L, new ItemDto());
+        itemClient.getItem(1L);
+        assertEquals(List.of("GET /items/1", "PATCH /items/1", "GET /items/1"), serverCalls);
+    }
+
+    @Test
+    void search_shouldRevalidateStaleResponseWithETag() {
+        itemClient.getItems("drill", 0, 10);
+        ResponseEntity<Object> revalidated = itemClient.getItems("drill", 0, 10);
+
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertArrayEquals("{\"path\":\"/items/search\"}".getBytes(StandardCharsets.UTF_8),
+                assertInstanceOf(byte[].class, revalidated.getBody()));
+        assertEquals(List.of("GET /items/search", "GET /items/search " + ETAG), serverCalls);
+    }
+
+    @Test
+    void requests_shouldBeCachedPerUserAndResetByNewRequest() {
+        requestClient.getAllRequests(1L);
+        requestClient.getAllRequests(2L);
+        requestClient.getAllRequests(1L);
+        assertEquals(List.of("GET /requests/all", "GET /requests/all"), serverCalls);
+
+        itemClient.createItem(2L, new ItemDto());
+        requestClient.getAllRequests(1L);
+        assertEquals(List.of("GET /requests/all", "GET /requests/all", "POST /items", "GET /requests/all"),
+                serverCalls);
+    }
+
+    @Test
+    void concurrentMisses_shouldReachServerOnce() {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<CompletableFuture<ResponseEntity<Object>>> responses = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> itemClient.getItem(99L), executor))
+                    .toList();
+            responses.forEach(response -> assertEquals(HttpStatus.OK, response.join().getStatusCode()));
+        }
+        assertEquals(List.of("GET " + SLOW_PATH), serverCalls);
+    }
+
+    //Чтение после записи не присоединяется к запросу, начатому до записи: иначе клиент получил бы старый ответ
+    @Test
+    void readAfterWrite_shouldNotJoinFetchStartedBeforeWrite() {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            CompletableFuture<ResponseEntity<Object>> before =
+                    CompletableFuture.supplyAsync(() -> itemClient.getItem(99L), executor);
+            awaitServerCalls(1);
+            itemClient.updateItem(1L, 99L, new ItemDto());
+            assertEquals(HttpStatus.OK, itemClient.getItem(99L).getStatusCode());
+            assertEquals(HttpStatus.OK, before.join().getStatusCode());
+        }
+        assertEquals(List.of("GET " + SLOW_PATH, "PATCH " + SLOW_PATH, "GET " + SLOW_PATH), serverCalls);
+    }
+
+    @SneakyThrows
+    private static void awaitServerCalls(int count) {
+        while (serverCalls.size() < count)
+            Thread.sleep(5);
+    }
+}
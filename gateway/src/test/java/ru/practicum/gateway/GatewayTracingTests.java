@@ -0,0 +1,113 @@
+package ru.practicum.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.tracing.Span;
+import ru.practicum.shareit.tracing.SpanExporter;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Передача контекста трассы серверу в заголовке traceparent
+@SpringBootTest(classes = {ShareItGateway.class, GatewayTracingTests.CollectingExporterConfig.class},
+        properties = {"shareit-server.cache.enabled=false", "shareit.tracing.file=",
+                "shareit.tracing.sample-rate=1.0"})
+@AutoConfigureMockMvc
+public class GatewayTracingTests {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String CLIENT_SPAN_ID = "00f067aa0ba902b7";
+
+    private static final List<String> RECEIVED = new CopyOnWriteArrayList<>();
+
+    private static final List<Span> SPANS = new CopyOnWriteArrayList<>();
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @TestConfiguration
+    static class CollectingExporterConfig {
+
+        @Bean
+        @Primary
+        public SpanExporter collectingSpanExporter() {
+            return SPANS::add;
+        }
+    }
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            RECEIVED.add(exchange.getRequestHeaders().getFirst(Span.TRACEPARENT));
+            byte[] body = "{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @SneakyThrows
+    public void request_shouldPassGatewaySpanToServer() {
+        RECEIVED.clear();
+        SPANS.clear();
+
+        mvc.perform(get("/users/1").header(Span.TRACEPARENT, "00-" + TRACE_ID + "-" + CLIENT_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, SPANS.size());
+        Span span = SPANS.getFirst();
+        assertEquals(TRACE_ID, span.getTraceId());
+        assertEquals(CLIENT_SPAN_ID, span.getParentId());
+        assertEquals("shareit-gateway", span.getLocalEndpoint().get("serviceName"));
+        //сервер получает span gateway как родительский
+        assertEquals(List.of("00-" + TRACE_ID + "-" + span.getId() + "-01"), RECEIVED);
+    }
+
+    @Test
+    @SneakyThrows
+    public void request_shouldStartTraceAndPassSamplingDecision() {
+        RECEIVED.clear();
+
+        mvc.perform(get("/users/1")).andExpect(status().isOk());
+
+        assertEquals(1, RECEIVED.size());
+        assertTrue(RECEIVED.getFirst().matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01"));
+    }
+}
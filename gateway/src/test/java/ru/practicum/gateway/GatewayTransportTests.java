@@ -0,0 +1,107 @@
+package ru.practicum.gateway;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.ServerTransportConfig;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+//Проверка общего пула соединений gateway -> server на заглушке сервера
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit-server.transport.max-connections=7")
+public class GatewayTransportTests {
+
+    private static final String NOT_FOUND_JSON = "{\"error\":\"User not found\",\"id\":404}";
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.createContext("/users/404", exchange -> {
+            byte[] body = NOT_FOUND_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    private double poolGauge(String name, String state) {
+        var search = meterRegistry.find(name).tag("httpclient", ServerTransportConfig.METRICS_NAME);
+        if (state != null)
+            search = search.tag("state", state);
+        return search.gauge().value();
+    }
+
+    @Test
+    void clients_shouldReuseOneKeepAliveConnection() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, userClient.getAllUsers().getStatusCode());
+            assertEquals(HttpStatus.OK, itemClient.getItems(1L).getStatusCode());
+        }
+        //Все запросы последовательны - одного соединения в общем пуле достаточно
+        assertEquals(1, poolGauge("httpcomponents.httpclient.pool.total.connections", "available"));
+        assertEquals(0, poolGauge("httpcomponents.httpclient.pool.total.connections", "leased"));
+        assertEquals(7, poolGauge("httpcomponents.httpclient.pool.total.max", null));
+    }
+
+    @Test
+    void clients_shouldPassServerResponseBytesThrough() {
+        ResponseEntity<Object> ok = userClient.getAllUsers();
+        assertArrayEquals("[]".getBytes(StandardCharsets.UTF_8), assertInstanceOf(byte[].class, ok.getBody()));
+        assertEquals(MediaType.APPLICATION_JSON, ok.getHeaders().getContentType());
+
+        ResponseEntity<Object> notFound = userClient.getUserById(404);
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertArrayEquals(NOT_FOUND_JSON.getBytes(StandardCharsets.UTF_8),
+                assertInstanceOf(byte[].class, notFound.getBody()));
+        assertEquals(MediaType.APPLICATION_JSON, notFound.getHeaders().getContentType());
+    }
+}
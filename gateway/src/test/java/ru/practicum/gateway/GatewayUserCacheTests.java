@@ -0,0 +1,97 @@
+package ru.practicum.gateway;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+//Изменение пользователя сбрасывает закэшированные результаты поиска, в которые входит имя владельца
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit-server.cache.ttl.search=1h")
+public class GatewayUserCacheTests {
+
+    private static final Pattern NAME = Pattern.compile("\"name\"\\s*:\\s*\"([^\"]*)\"");
+
+    //Имя владельца, которое заглушка сервера возвращает в результатах поиска
+    private static final AtomicReference<String> ownerName = new AtomicReference<>("Old");
+
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private UserClient userClient;
+
+    @SneakyThrows
+    private static HttpServer startServer() {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/users", exchange -> {
+            Matcher matcher = NAME.matcher(new String(exchange.getRequestBody().readAllBytes(),
+                    StandardCharsets.UTF_8));
+            if (matcher.find())
+                ownerName.set(matcher.group(1));
+            respond(exchange, "{\"id\":1,\"name\":\"" + ownerName.get() + "\"}");
+        });
+        httpServer.createContext("/items/search", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"" + ownerName.get() + "\"");
+            respond(exchange, searchResult(ownerName.get()));
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    @SneakyThrows
+    private static void respond(HttpExchange exchange, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static String searchResult(String name) {
+        return "[{\"id\":1,\"name\":\"Drill\",\"ownerName\":\"" + name + "\"}]";
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void search_shouldShowNewOwnerNameAfterUserUpdate() {
+        assertArrayEquals(searchResult("Old").getBytes(StandardCharsets.UTF_8),
+                assertInstanceOf(byte[].class, itemClient.getItems("drill", 0, 10).getBody()));
+
+        UserDto update = new UserDto();
+        update.setName("New");
+        userClient.updateUser(1L, update);
+
+        assertArrayEquals(searchResult("New").getBytes(StandardCharsets.UTF_8),
+                assertInstanceOf(byte[].class, itemClient.getItems("drill", 0, 10).getBody()));
+    }
+}
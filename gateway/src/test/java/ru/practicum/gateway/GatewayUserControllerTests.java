@@ -16,7 +16,9 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.client.ResourceAccessException;
 import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.auxiliary.GatewayErrorHandler;
 import ru.practicum.shareit.user.GateUserController;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -25,7 +27,9 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 //Проверка работы валидации для GateUserController
@@ -235,4 +239,51 @@ public class GatewayUserControllerTests {
         verify(client, times(1)).getAllUsers();
     }
 
+    //Вспомогательный метод для пакетных реквестов
+    @SneakyThrows
+    public RequestBuilder getBatchRequest(List<UserDto> requestBody) {
+        return MockMvcRequestBuilders
+                .post("/users/batch")
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestBody))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @SneakyThrows
+    @Test
+    public void createUsers_whenAllValid_thenSentToServer() {
+        List<UserDto> batch = List.of(goodUser, new UserDto(null, "Second user", "second@nowhere.net"));
+        when(client.createUsers(batch)).thenReturn(ResponseEntity.ok().body(List.of()));
+        mockMvc.perform(getBatchRequest(batch)).andExpect(status().isOk());
+        verify(client, times(1)).createUsers(batch);
+    }
+
+    @SneakyThrows
+    @Test
+    public void createUsers_whenOneInvalid_thenWholeBatchRejected() {
+        //Ошибка во втором элементе указывается с его индексом, на сервер пакет не передается
+        List<UserDto> batch = List.of(goodUser, new UserDto(null, "Second user", "not-an-email"));
+        mockMvc.perform(getBatchRequest(batch)).andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(
+                        assertInstanceOf(ConstraintViolationException.class, result.getResolvedException())
+                                .getMessage().startsWith("[1].email")));
+        verify(client, never()).createUsers(anyList());
+    }
+
+    @SneakyThrows
+    @Test
+    public void createUsers_whenEmptyBatch_thenBadRequest() {
+        mockMvc.perform(getBatchRequest(List.of())).andExpect(status().isBadRequest());
+        verify(client, never()).createUsers(anyList());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserById_whenServerUnavailable_thenDetailsAreNotExposed() {
+        when(client.getUserById(1L)).thenThrow(new ResourceAccessException(
+                "I/O error on GET request for \"http://shareit-server:9090/users/1\": Connection refused"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(GatewayErrorHandler.SERVER_UNAVAILABLE));
+    }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.auxiliary;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.auxiliary.exceptions.AccessNotAllowedException;
+import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
+import ru.practicum.shareit.auxiliary.exceptions.ErrorResponse;
+import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.auxiliary.exceptions.ValidationException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+//Результат одного элемента пакетного запроса: индекс элемента в пакете, HTTP-статус,
+//созданный объект или ошибка (в том же виде, что и ответ ServerErrorHandler)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult<T> {
+
+    private int index;
+
+    private int status;
+
+    private T result;
+
+    private ErrorResponse error;
+
+    public static <T> BatchResult<T> created(int index, T result) {
+        return new BatchResult<>(index, HttpStatus.OK.value(), result, null);
+    }
+
+    public static <T> BatchResult<T> failed(int index, ValidationException e) {
+        return new BatchResult<>(index, statusOf(e).value(), null,
+                new ErrorResponse(e.getMessage(), e.getObjForBody()));
+    }
+
+    //Статусы совпадают с назначаемыми ServerErrorHandler для одиночных запросов
+    private static HttpStatus statusOf(ValidationException e) {
+        if (e instanceof NotFoundException)
+            return HttpStatus.NOT_FOUND;
+        if (e instanceof DuplicateDataException)
+            return HttpStatus.CONFLICT;
+        if (e instanceof AccessNotAllowedException)
+            return HttpStatus.FORBIDDEN;
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    //Пустые места в results - принятые элементы; они по порядку заполняются сохраненными сущностями
+    public static <E, T> List<BatchResult<T>> withSaved(List<BatchResult<T>> results, List<E> saved,
+                                                        Function<E, T> mapper) {
+        Iterator<E> savedIterator = saved.iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null)
+                results.set(i, created(i, mapper.apply(savedIterator.next())));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.auxiliary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+//Объединение одинаковых одновременных чтений: пока результат для ключа вычисляется, остальные вызовы с тем же
+//ключом ждут его, а не повторяют запросы к БД. Результат не кэшируется - следующий вызов после завершения
+//вычисляет заново. Метрики: shareit.singleflight.calls и shareit.singleflight.coalesced с тегом name
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(@Value("${shareit.single-flight.enabled:true}") boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    //Результат и исключение загрузчика получают все ожидавшие вызовы, поэтому результат не должен изменяться
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String name, Object key, Supplier<V> loader) {
+        if (!enabled)
+            return loader.get();
+        counter("shareit.singleflight.calls", name).increment();
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, own);
+        if (existing != null) {
+            counter("shareit.singleflight.coalesced", name).increment();
+            return (V) join(existing);
+        }
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, own);
+        }
+    }
+
+    //Следующий вызов с ключом начнет новую загрузку, уже ожидающие вызовы получат результат текущей.
+    //Вызывается записями, которые меняют результат: чтение после записи не должно присоединиться к загрузке,
+    //начатой до нее. В транзакции ключ сбрасывается после фиксации - до нее новая загрузка не увидела бы запись
+    public void forget(String name, Object key) {
+        afterCommit(() -> inFlight.remove(new FlightKey(name, key)));
+    }
+
+    //Все ключи name, например все страницы поиска после изменения вещи
+    public void forgetAll(String name) {
+        afterCommit(() -> inFlight.keySet().removeIf(flightKey -> flightKey.name().equals(name)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw e;
+        }
+    }
+
+    private Counter counter(String metric, String name) {
+        return meterRegistry.counter(metric, "name", name);
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.auxiliary;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+//Ответ на чтение с сильным ETag. ETag считается по id и версиям всех сущностей, попадающих в ответ,
+//а DTO строится только если у клиента нет актуальной копии
+public record Tagged<T>(String etag, Supplier<T> content) {
+
+    public static <T> Tagged<T> of(Supplier<T> content, Object... state) {
+        String digest = DigestUtils.md5DigestAsHex(Arrays.deepToString(state).getBytes(StandardCharsets.UTF_8));
+        return new Tagged<>("\"" + digest + "\"", content);
+    }
+
+    public T body() {
+        return content.get();
+    }
+
+    //Тот же ответ, но DTO строится не более одного раза - для ответа, который получают несколько вызовов
+    public Tagged<T> memoized() {
+        Supplier<T> once = new Supplier<>() {
+            private T value;
+
+            @Override
+            public synchronized T get() {
+                if (value == null)
+                    value = content.get();
+                return value;
+            }
+        };
+        return new Tagged<>(etag, once);
+    }
+
+    public boolean matches(@Nullable String ifNoneMatch) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    //304 без тела, если клиент прислал тот же ETag, иначе 200 с телом
+    public ResponseEntity<T> toResponse(@Nullable String ifNoneMatch) {
+        if (matches(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        return ResponseEntity.ok().eTag(etag).body(body());
+    }
+}
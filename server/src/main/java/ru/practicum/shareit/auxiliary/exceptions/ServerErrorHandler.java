@@ -1,6 +1,7 @@
 package ru.practicum.shareit.auxiliary.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -32,6 +33,14 @@ public class ServerErrorHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    //Параллельное изменение той же записи (не совпала версия)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handlerOptimisticLocking(final OptimisticLockingFailureException e) {
+        log.info("\nConcurrent modification - Message: {}", e.getMessage());
+        ErrorResponse response = new ErrorResponse("Data was changed by another request, try again", null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(AccessNotAllowedException.class)
     public ResponseEntity<ErrorResponse> handlerAccessNotAllowed(final AccessNotAllowedException e) {
         StackTraceElement sElem = e.getStackTrace()[0];
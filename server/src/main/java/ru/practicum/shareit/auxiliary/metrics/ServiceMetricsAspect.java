@@ -0,0 +1,61 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+//Таймер shareit.service{class, method, exception} на каждом публичном методе сервисов, с процентилями
+//из ServiceMetricsProperties. SLO считаются накопительными счетчиками shareit.service.slo{class, method, le}:
+//доля вызовов в SLO - rate(shareit_service_slo_total{le=...}) / rate(shareit_service_seconds_count).
+//Внешний по отношению к транзакции: время фиксации входит в время метода
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ServiceMetricsProperties properties;
+
+    @Around("within(@org.springframework.stereotype.Service *) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long started = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            record(AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName(),
+                    joinPoint.getSignature().getName(), exception, System.nanoTime() - started);
+        }
+    }
+
+    private void record(String type, String method, String exception, long nanos) {
+        Timer.builder("shareit.service")
+                .tag("class", type)
+                .tag("method", method)
+                .tag("exception", exception)
+                .publishPercentiles(properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        //счетчик регистрируется и при превышении границы, чтобы нулевая доля вызовов в SLO была видна
+        for (Duration bound : properties.sloOf(type + "." + method)) {
+            Counter slo = meterRegistry.counter("shareit.service.slo", "class", type, "method", method,
+                    "le", String.valueOf(bound.toNanos() / 1e9));
+            if (nanos <= bound.toNanos())
+                slo.increment();
+        }
+    }
+}
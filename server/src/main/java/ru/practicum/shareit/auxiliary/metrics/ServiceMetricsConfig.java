@@ -0,0 +1,24 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//Таймеры методов сервисов (shareit.service-metrics.enabled) и выдача метрик в формате Prometheus
+@Configuration
+@EnableConfigurationProperties(ServiceMetricsProperties.class)
+public class ServiceMetricsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.service-metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public ServiceMetricsAspect serviceMetricsAspect(MeterRegistry meterRegistry, ServiceMetricsProperties properties) {
+        return new ServiceMetricsAspect(meterRegistry, properties);
+    }
+
+    @Bean
+    public PrometheusTextEndpoint prometheusTextEndpoint(MeterRegistry meterRegistry) {
+        return new PrometheusTextEndpoint(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.auxiliary.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.service-metrics")
+//Настройки таймеров методов сервисов
+public class ServiceMetricsProperties {
+
+    private boolean enabled = true;
+
+    //Процентили времени выполнения (скользящее окно management.metrics.distribution.expiry)
+    private List<Double> percentiles = List.of(0.5, 0.95, 0.99);
+
+    //Границы SLO для всех методов: счетчик shareit.service.slo{le} - число вызовов не дольше границы
+    private List<Duration> defaultSlo = List.of(Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1));
+
+    //Границы SLO отдельных методов, ключ - Класс.метод (например, slo[BookingServiceImpl.addNewBooking]=100ms,300ms)
+    private Map<String, List<Duration>> slo = new HashMap<>();
+
+    public List<Duration> sloOf(String method) {
+        return slo.getOrDefault(method, defaultSlo);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.auxiliary.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+//Метрики обращений к БД по эндпоинтам (shareit.sql-metrics.enabled)
+@Configuration
+@EnableConfigurationProperties(SqlMetricsProperties.class)
+@ConditionalOnProperty(name = "shareit.sql-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    //static - чтобы обертка применялась к источнику данных до создания остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SqlMetricsDataSource)
+                        ? new SqlMetricsDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    //Загрузки сущностей (из БД и из кэша второго уровня) считаются слушателем Hibernate
+    @Bean
+    public SmartInitializingSingleton sqlMetricsEntityLoadListener(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                    SqlRequestStats stats = SqlRequestStats.current();
+                    if (stats != null)
+                        stats.entityLoaded();
+                });
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlMetricsWebMvcConfigurer(MeterRegistry meterRegistry, SqlMetricsProperties properties) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry, properties));
+            }
+        };
+    }
+}
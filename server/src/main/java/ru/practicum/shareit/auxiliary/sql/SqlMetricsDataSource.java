@@ -0,0 +1,107 @@
+package ru.practicum.shareit.auxiliary.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+//Источник данных, считающий обращения к БД текущего HTTP-запроса (SqlRequestStats): подготовленные операторы,
+//прочитанные строки и время выполнения. Считается все, что идет через пул - Hibernate, Spring Data, JdbcTemplate.
+//Вне HTTP-запроса соединения и операторы только проксируются
+public class SqlMetricsDataSource extends DelegatingDataSource {
+
+    public SqlMetricsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), SqlMetricsDataSource::connectionCall);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), SqlMetricsDataSource::connectionCall);
+    }
+
+    private static Object connectionCall(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (result instanceof Statement statement) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null)
+                stats.statementPrepared();
+            return proxy(statementType(statement), statement, SqlMetricsDataSource::statementCall);
+        }
+        return result;
+    }
+
+    private static Object statementCall(Object target, Method method, Object[] args) throws Throwable {
+        if (!method.getName().startsWith("execute"))
+            return wrapResultSet(invoke(target, method, args));
+        long started = System.nanoTime();
+        try {
+            return wrapResultSet(invoke(target, method, args));
+        } finally {
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null)
+                stats.executed(System.nanoTime() - started);
+        }
+    }
+
+    private static Object resultSetCall(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+            SqlRequestStats stats = SqlRequestStats.current();
+            if (stats != null)
+                stats.rowFetched();
+        }
+        return result;
+    }
+
+    private static Object wrapResultSet(Object result) {
+        return result instanceof ResultSet resultSet
+                ? proxy(ResultSet.class, resultSet, SqlMetricsDataSource::resultSetCall)
+                : result;
+    }
+
+    private static Class<? extends Statement> statementType(Statement statement) {
+        if (statement instanceof CallableStatement)
+            return CallableStatement.class;
+        if (statement instanceof PreparedStatement)
+            return PreparedStatement.class;
+        return Statement.class;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            //unwrap и isWrapperFor работают с исходным объектом драйвера или пула
+            case "unwrap", "isWrapperFor" -> invoke(target, method, args);
+            case "equals" -> proxy == args[0];
+            default -> call.invoke(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(SqlMetricsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
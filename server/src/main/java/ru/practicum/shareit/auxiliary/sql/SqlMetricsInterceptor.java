@@ -0,0 +1,60 @@
+package ru.practicum.shareit.auxiliary.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+//Собирает счетчики SqlRequestStats на время обработки запроса (включая сериализацию ответа) и публикует их
+//с тегом endpoint = Контроллер.метод: shareit.sql.statements, shareit.sql.rows, shareit.sql.entity.loads -
+//распределения на запрос, shareit.sql.execution - суммарное время выполнения операторов запроса
+@Slf4j
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final SqlMetricsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method)
+            SqlRequestStats.start(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlRequestStats stats = SqlRequestStats.finish();
+        if (stats == null)
+            return;
+        String endpoint = stats.getEndpoint();
+        summary("shareit.sql.statements", endpoint).record(stats.getStatements());
+        summary("shareit.sql.rows", endpoint).record(stats.getRows());
+        summary("shareit.sql.entity.loads", endpoint).record(stats.getEntityLoads());
+        Timer.builder("shareit.sql.execution")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getExecutionNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getStatements() > properties.getAlarmStatements()) {
+            meterRegistry.counter("shareit.sql.alarms", "endpoint", endpoint).increment();
+            log.warn("\n{} {} executed {} SQL statements (limit {}), {} rows, {} entities loaded - possible N+1",
+                    request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                    properties.getAlarmStatements(), stats.getRows(), stats.getEntityLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String endpoint) {
+        return DistributionSummary.builder(name)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
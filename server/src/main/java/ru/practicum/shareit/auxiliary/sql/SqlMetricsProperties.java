@@ -0,0 +1,18 @@
+package ru.practicum.shareit.auxiliary.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql-metrics")
+//Настройки метрик обращений к БД по эндпоинтам
+public class SqlMetricsProperties {
+
+    private boolean enabled = true;
+
+    //Порог числа операторов SQL на один запрос: при превышении - предупреждение в лог
+    //и счетчик shareit.sql.alarms (признак N+1)
+    private int alarmStatements = 20;
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.auxiliary.sql;
+
+import lombok.Getter;
+
+//Счетчики обращений к БД в рамках одного HTTP-запроса. Привязаны к потоку запроса: их заполняют
+//SqlMetricsDataSource (операторы, строки, время выполнения) и слушатель загрузки сущностей Hibernate
+@Getter
+public class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+
+    private int statements;
+
+    private long rows;
+
+    private long executionNanos;
+
+    private int entityLoads;
+
+    private SqlRequestStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public static SqlRequestStats start(String endpoint) {
+        SqlRequestStats stats = new SqlRequestStats(endpoint);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    //Счетчики текущего запроса или null, если поток не обрабатывает HTTP-запрос
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlRequestStats finish() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    void executed(long nanos) {
+        executionNanos += nanos;
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+}
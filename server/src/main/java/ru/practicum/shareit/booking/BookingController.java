@@ -2,15 +2,16 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.service.ItemService;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
@@ -23,30 +24,41 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
-    private final UserService userService;
-    private final ItemService itemService;
 
     //Post /bookings
     @PostMapping
     public ResponseEntity<BookingOutputDto> addNewBooking(@RequestHeader("X-Sharer-User-Id") Long id,
                                                           @RequestBody BookingInputDto bookingInputDto) {
-        log.info("\nServer: Получен запрос на добавление бронирования booker {}, {}", id, bookingInputDto);
+        log.info("Server: Получен запрос на добавление бронирования booker={} item={}", id, bookingInputDto.getItemId());
         bookingInputDto.setBooker(id);
         if (bookingInputDto.getStatus() == null)
             bookingInputDto.setStatus("WAITING");
         BookingOutputDto result = bookingService.addNewBooking(bookingInputDto);
-        log.info("\nWas added booking {}", result);
+        log.debug("Was added booking id={} status={}", result.getId(), result.getStatus());
         return ResponseEntity.ok(result);
     }
 
+    //Post /bookings/batch
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult<BookingOutputDto>>> addNewBookings(@RequestHeader("X-Sharer-User-Id") Long id,
+                                                                              @RequestBody List<BookingInputDto> bookingInputDtos) {
+        log.info("Server: Получен запрос на добавление {} бронирований booker {}", bookingInputDtos.size(), id);
+        List<BatchResult<BookingOutputDto>> results = bookingService.addNewBookings(id, bookingInputDtos);
+        log.debug("Обработан пакет из {} бронирований", results.size());
+        return ResponseEntity.ok(results);
+    }
+
     //GET /bookings/{bookingId}
     @GetMapping("/{bookingId}")
-    public ResponseEntity<BookingOutputDto> getBookingInfo(@PathVariable Long bookingId) {
-        log.info("\nServer: Получен запрос на просмотр бронирования bookingId {}", bookingId);
-        BookingOutputDto result = bookingService.getBookingInfo(bookingId);
-        log.info("\nПолучен {}", result);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<BookingOutputDto> getBookingInfo(@PathVariable Long bookingId,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Server: Получен запрос на просмотр бронирования bookingId {}", bookingId);
+        Tagged<BookingOutputDto> result = bookingService.getTaggedBookingInfo(bookingId);
+        log.debug("Получено бронирование id={} ETag={}", bookingId, result.etag());
+        return result.toResponse(ifNoneMatch);
     }
 
     //GET /bookings?state={state}
@@ -55,36 +67,54 @@ public class BookingController {
                                                                       @RequestParam(defaultValue = "ALL") String state,
                                                                       @RequestParam(name = "from") Integer from,
                                                                       @RequestParam(name = "size") Integer size) {
-        log.info("\nServer: Получен запрос на просмотр всех бронирований user {} state {} from {} size {}",
+        log.info("Server: Получен запрос на просмотр всех бронирований user {} state {} from {} size {}",
                 id, state, from, size);
         List<BookingOutputDto> result = bookingService.getAllUsersBookings(id, state, from, size);
-        log.info("\nПолучен список из {} бронирований", result.size());
+        log.debug("Получен список из {} бронирований", result.size());
         return ResponseEntity.ok(result);
     }
 
+    //GET /bookings?state={state}&cursor={cursor}&size={size}
+    //Keyset-пагинация: пустой cursor - первая страница, курсор следующей страницы возвращается в заголовке
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingOutputDto>> getUsersBookingsAfter(@RequestHeader("X-Sharer-User-Id") Long id,
+                                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                                        @RequestParam(name = "cursor") String cursor,
+                                                                        @RequestParam(name = "size") Integer size) {
+        log.info("Server: Получен запрос на просмотр бронирований user {} state {} после курсора {} size {}",
+                id, state, cursor, size);
+        Slice<BookingOutputDto> result = bookingService.getUsersBookingsAfter(id, state, cursor, size);
+        log.debug("Получен список из {} бронирований, hasNext={}", result.getNumberOfElements(), result.hasNext());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.hasNext()) {
+            List<BookingOutputDto> content = result.getContent();
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(content.get(content.size() - 1)).encode());
+        }
+        return response.body(result.getContent());
+    }
+
     //Patch /bookings/{bookingId}?approved={approved}
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingOutputDto> approveBooking(@RequestHeader("X-Sharer-User-Id") Long id,
                                                            @PathVariable Long bookingId,
                                                            @RequestParam Boolean approved) {
-        log.info("\nServer: Получен запрос на подтверждение бронирования owner {}, booking {}, approve {}",
+        log.info("Server: Получен запрос на подтверждение бронирования owner {}, booking {}, approve {}",
                 id, bookingId, approved);
         BookingOutputDto result = bookingService.approveBooking(id, bookingId, approved);
-        log.info("\nNow booking {} has status {}", result.getId(), result.getStatus());
+        log.debug("Now booking id={} has status={}", result.getId(), result.getStatus());
         return ResponseEntity.ok(result);
     }
 
     //GET /bookings/owner?state={state}
     @GetMapping("/owner")
     public ResponseEntity<List<BookingOutputDto>> getAllOwnersBookings(@RequestHeader("X-Sharer-User-Id") Long id,
-                                                                       @RequestParam(defaultValue = "ALL") String state) {
-        log.info("\nПолучен запрос на просмотр всех бронирований собственника {} state {}", id, state);
-        User owner = userService.getUser(id);
-        List<Item> ownersItems = itemService.getItemsList(owner);
-        log.info("\nПолучен список из {} вещей собственника {}", ownersItems.size(), id);
-        List<BookingOutputDto> result =
-                ownersItems.isEmpty() ? List.of() : bookingService.getAllOwnersBookings(ownersItems, state);
-        log.info("\nПолучен список из {} бронирований собственника {}", result.size(), id);
+                                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                                       @RequestParam(name = "from") Integer from,
+                                                                       @RequestParam(name = "size") Integer size) {
+        log.info("Получен запрос на просмотр всех бронирований собственника {} state {} from {} size {}",
+                id, state, from, size);
+        List<BookingOutputDto> result = bookingService.getAllOwnersBookings(id, state, from, size);
+        log.debug("Получен список из {} бронирований собственника id={}", result.size(), id);
         return ResponseEntity.ok(result);
     }
 }
@@ -2,59 +2,156 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
+import ru.practicum.shareit.booking.calendar.ItemBookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findAllByBooker(User booker, Pageable pageable);
+    //Условие keyset-пагинации: бронирования, идущие после курсора в порядке start DESC, id DESC
+    String AFTER_CURSOR = " AND (b.start < :start OR (b.start = :start AND b.id < :id))";
+
+    //Связи бронирования загружаются лениво. Бронирование по id загружается вместе с графом
+    //Booking.WITH_ITEM_AND_BOOKER тем же запросом
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    //Списки бронирований только для чтения: ответ строится конструктором BookingOutputDto прямо из строк выборки,
+    //сущности в контекст персистентности не загружаются
+    String OUTPUT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingOutputDto(b.id, b.start, b.end, " +
+            "b.status, i.id, i.name, i.description, i.available, o.id, o.name, o.email, " +
+            "r.id, r.description, r.created, rq.id, rq.name, rq.email, bk.id, bk.name, bk.email) " +
+            "FROM Booking b JOIN b.item i JOIN i.owner o LEFT JOIN i.request r LEFT JOIN r.requestor rq " +
+            "JOIN b.booker bk";
+
+    //Запросы для получения бронирований пользователя (state = ALL, WAITING/REJECTED, PAST, FUTURE, CURRENT)
+    @Query(value = OUTPUT_DTO + " WHERE bk.id = :bookerId",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.booker.id = :bookerId")
+    Page<BookingOutputDto> findAllByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE bk.id = :bookerId AND b.status = :status",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.booker.id = :bookerId AND b.status = :status")
+    Page<BookingOutputDto> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                                      @Param("status") BookStatus status, Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE bk.id = :bookerId AND b.end < :now",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.booker.id = :bookerId AND b.end < :now")
+    Page<BookingOutputDto> findAllByBookerIdAndEndBefore(@Param("bookerId") Long bookerId,
+                                                         @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE bk.id = :bookerId AND b.start > :now",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :now")
+    Page<BookingOutputDto> findAllByBookerIdAndStartAfter(@Param("bookerId") Long bookerId,
+                                                          @Param("now") LocalDateTime now, Pageable pageable);
 
     List<Booking> findAllByItemAndStatus(Item item, BookStatus status);
 
-    Page<Booking> findAllByBookerAndStatus(User booker, BookStatus status, Pageable pageable);
+    //Интервалы бронирований вещи для календаря занятости (ItemCalendarService)
+    List<BookingPeriod> findAllByItemIdAndStatusAndEndAfter(Long itemId, BookStatus status, LocalDateTime dateTime);
 
-    Page<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime dateTime, Pageable pageable);
-
-    Page<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime dateTime, Pageable pageable);
+    //Есть ли у вещи бронирования с заданным статусом, пересекающиеся с интервалом [start, end)
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.status = :status " +
+            "AND b.id <> :excludedId AND b.start < :end AND b.end > :start")
+    boolean hasOverlappingBookings(@Param("itemId") Long itemId, @Param("status") BookStatus status,
+                                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                   @Param("excludedId") Long excludedId);
 
     //Запрос для получения текущих бронирований пользователя
-    @Query(value =
-            "SELECT b FROM Booking b WHERE (b.booker=:user) AND (:now BETWEEN b.start AND b.end)")
-    Page<Booking> findCurrentUsersBookings(@Param("user") User user, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId) AND (:now BETWEEN b.start AND b.end)",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE (b.booker.id = :bookerId) " +
+                    "AND (:now BETWEEN b.start AND b.end)")
+    Page<BookingOutputDto> findCurrentUsersBookings(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    //Запросы keyset-пагинации бронирований пользователя (state = ALL, WAITING/REJECTED, PAST, FUTURE, CURRENT)
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId)" + AFTER_CURSOR)
+    Slice<BookingOutputDto> findUsersBookingsAfter(@Param("bookerId") Long bookerId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("id") Long id, Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId) AND (b.status = :state)" + AFTER_CURSOR)
+    Slice<BookingOutputDto> findUsersBookingsByStatusAfter(@Param("bookerId") Long bookerId,
+                                                           @Param("state") BookStatus state,
+                                                           @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                           Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId) AND (b.end < :now)" + AFTER_CURSOR)
+    Slice<BookingOutputDto> findPastUsersBookingsAfter(@Param("bookerId") Long bookerId,
+                                                       @Param("now") LocalDateTime now,
+                                                       @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                       Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId) AND (b.start > :now)" + AFTER_CURSOR)
+    Slice<BookingOutputDto> findFutureUsersBookingsAfter(@Param("bookerId") Long bookerId,
+                                                         @Param("now") LocalDateTime now,
+                                                         @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                         Pageable pageable);
+
+    @Query(value = OUTPUT_DTO + " WHERE (bk.id = :bookerId) AND (:now BETWEEN b.start AND b.end)" + AFTER_CURSOR)
+    Slice<BookingOutputDto> findCurrentUsersBookingsAfter(@Param("bookerId") Long bookerId,
+                                                          @Param("now") LocalDateTime now,
+                                                          @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                          Pageable pageable);
 
     //Запрос для получения всех бронирований вещей собственника (state = ALL)
-    @Query(value = "SELECT b FROM Booking b WHERE b.item in :itemsList")
-    List<Booking> findAllBookingsOfItems(@Param("itemsList") List<Item> items);
+    @Query(value = OUTPUT_DTO + " WHERE o.id = :ownerId",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.item.owner.id = :ownerId")
+    Page<BookingOutputDto> findAllOwnersBookings(@Param("ownerId") Long ownerId, Pageable pageable);
 
     //Запрос для получения WAITING or REJECTED бронирований вещей собственника
-    @Query(value =
-            "SELECT b FROM Booking b WHERE (b.item in :itemsList) AND (b.status = :state)")
-    List<Booking> findBookingsOfItemByStatus(@Param("itemsList") List<Item> items, @Param("state") BookStatus state);
+    @Query(value = OUTPUT_DTO + " WHERE (o.id = :ownerId) AND (b.status = :state)",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE (b.item.owner.id = :ownerId) AND (b.status = :state)")
+    Page<BookingOutputDto> findOwnersBookingsByStatus(@Param("ownerId") Long ownerId, @Param("state") BookStatus state,
+                                                      Pageable pageable);
 
     //Запрос для получения FUTURE бронирований вещей собственника
-    @Query(value =
-            "SELECT b FROM Booking b WHERE (b.item in :itemsList) AND (b.start > :now)")
-    List<Booking> findFutureUsersBookings(@Param("itemsList") List<Item> items, @Param("now") LocalDateTime now);
+    @Query(value = OUTPUT_DTO + " WHERE (o.id = :ownerId) AND (b.start > :now)",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE (b.item.owner.id = :ownerId) AND (b.start > :now)")
+    Page<BookingOutputDto> findFutureOwnersBookings(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
 
     //Запрос для получения PAST бронирований вещей собственника
-    @Query(value =
-            "SELECT b FROM Booking b WHERE (b.item in :itemsList) AND (b.end < :now)")
-    List<Booking> findPastUsersBookings(@Param("itemsList") List<Item> items, @Param("now") LocalDateTime now);
+    @Query(value = OUTPUT_DTO + " WHERE (o.id = :ownerId) AND (b.end < :now)",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE (b.item.owner.id = :ownerId) AND (b.end < :now)")
+    Page<BookingOutputDto> findPastOwnersBookings(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
 
     //Запрос для получения CURRENT бронирований вещей собственника
-    @Query(value =
-            "SELECT b FROM Booking b WHERE (b.item in :itemsList) AND (:now BETWEEN b.start AND b.end)")
-    List<Booking> findCurrentBookingsOfItems(@Param("itemsList") List<Item> items, @Param("now") LocalDateTime now);
+    @Query(value = OUTPUT_DTO + " WHERE (o.id = :ownerId) AND (:now BETWEEN b.start AND b.end)",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE (b.item.owner.id = :ownerId) " +
+                    "AND (:now BETWEEN b.start AND b.end)")
+    Page<BookingOutputDto> findCurrentOwnersBookings(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                     Pageable pageable);
+
+    //Запрос для получения последнего и следующего бронирования сразу для всех вещей из списка.
+    //На каждую вещь возвращается не более двух строк (кроме бронирований с одинаковой датой начала).
+    //Нужны только даты и id вещи, поэтому выбираются только они (проекция ItemBookingPeriod)
+    @Query(value = "SELECT b.id AS id, i.id AS itemId, b.start AS start, b.end AS end FROM Booking b JOIN b.item i " +
+            "WHERE (i.id IN :itemIds) AND (b.status = :status) AND (" +
+            "(b.end < :now AND b.start = (SELECT MAX(l.start) FROM Booking l " +
+            "WHERE l.item = b.item AND l.status = :status AND l.end < :now)) OR " +
+            "(b.start > :now AND b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item = b.item AND n.status = :status AND n.start > :now)))")
+    List<ItemBookingPeriod> findLastAndNextBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                                           @Param("status") BookStatus status,
+                                                           @Param("now") LocalDateTime now);
 
     //Список завершенных (или в процессе выполнения) подтвержденных бронирований item user'ом
     List<Booking> findAllByBookerAndItemAndEndBefore(
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.calendar;
+
+import java.time.LocalDateTime;
+
+//Проекция бронирования для календаря занятости: из БД читаются только id и интервал
+public interface BookingPeriod {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.calendar;
+
+//Проекция бронирования для последнего и следующего бронирований вещи: интервал и id вещи
+public interface ItemBookingPeriod extends BookingPeriod {
+
+    Long getItemId();
+}
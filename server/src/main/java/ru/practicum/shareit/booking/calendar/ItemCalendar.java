@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.calendar;
+
+import ru.practicum.shareit.item.dto.availability.BusyPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//Неизменяемый календарь одобренных бронирований вещи: массивы интервалов [start, end), отсортированные по началу.
+//maxEnds[i] - наибольший конец среди первых i + 1 интервалов, он не убывает, поэтому первый интервал, который
+//может пересечься с запросом, находится двоичным поиском. Одобренные бронирования не пересекаются,
+//так что дальше просматриваются только интервалы, действительно попавшие в запрос
+public final class ItemCalendar {
+
+    private static final ItemCalendar EMPTY =
+            new ItemCalendar(new long[0], new LocalDateTime[0], new LocalDateTime[0]);
+
+    private final long[] bookingIds;
+
+    private final LocalDateTime[] starts;
+
+    private final LocalDateTime[] ends;
+
+    private final LocalDateTime[] maxEnds;
+
+    private ItemCalendar(long[] bookingIds, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.bookingIds = bookingIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new LocalDateTime[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = (i == 0 || ends[i].isAfter(maxEnds[i - 1])) ? ends[i] : maxEnds[i - 1];
+        }
+    }
+
+    public static ItemCalendar of(List<BookingPeriod> periods) {
+        if (periods.isEmpty())
+            return EMPTY;
+        List<BookingPeriod> sorted = periods.stream()
+                .sorted(Comparator.comparing(BookingPeriod::getStart).thenComparing(BookingPeriod::getId))
+                .toList();
+        int size = sorted.size();
+        long[] ids = new long[size];
+        LocalDateTime[] starts = new LocalDateTime[size];
+        LocalDateTime[] ends = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = sorted.get(i).getId();
+            starts[i] = sorted.get(i).getStart();
+            ends[i] = sorted.get(i).getEnd();
+        }
+        return new ItemCalendar(ids, starts, ends);
+    }
+
+    public int size() {
+        return bookingIds.length;
+    }
+
+    public boolean isFree(LocalDateTime from, LocalDateTime to) {
+        int i = firstEndingAfter(from);
+        for (; i < starts.length && starts[i].isBefore(to); i++) {
+            if (ends[i].isAfter(from))
+                return false;
+        }
+        return true;
+    }
+
+    public List<BusyPeriodDto> getBusyPeriods(LocalDateTime from, LocalDateTime to) {
+        List<BusyPeriodDto> busy = new ArrayList<>();
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i].isBefore(to); i++) {
+            if (ends[i].isAfter(from))
+                busy.add(new BusyPeriodDto(bookingIds[i], starts[i], ends[i]));
+        }
+        return busy;
+    }
+
+    //Календарь с добавленным (или перенесенным) бронированием
+    public ItemCalendar with(long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemCalendar base = without(bookingId);
+        int size = base.size();
+        int pos = 0;
+        while (pos < size && !base.starts[pos].isAfter(start)) {
+            pos++;
+        }
+        long[] ids = new long[size + 1];
+        LocalDateTime[] newStarts = new LocalDateTime[size + 1];
+        LocalDateTime[] newEnds = new LocalDateTime[size + 1];
+        copyWithGap(base, pos, ids, newStarts, newEnds);
+        ids[pos] = bookingId;
+        newStarts[pos] = start;
+        newEnds[pos] = end;
+        return new ItemCalendar(ids, newStarts, newEnds);
+    }
+
+    public ItemCalendar without(long bookingId) {
+        int pos = -1;
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0)
+            return this;
+        int size = bookingIds.length - 1;
+        long[] ids = new long[size];
+        LocalDateTime[] newStarts = new LocalDateTime[size];
+        LocalDateTime[] newEnds = new LocalDateTime[size];
+        System.arraycopy(bookingIds, 0, ids, 0, pos);
+        System.arraycopy(bookingIds, pos + 1, ids, pos, size - pos);
+        System.arraycopy(starts, 0, newStarts, 0, pos);
+        System.arraycopy(starts, pos + 1, newStarts, pos, size - pos);
+        System.arraycopy(ends, 0, newEnds, 0, pos);
+        System.arraycopy(ends, pos + 1, newEnds, pos, size - pos);
+        return size == 0 ? EMPTY : new ItemCalendar(ids, newStarts, newEnds);
+    }
+
+    //Индекс первого интервала, у которого maxEnds > from (двоичный поиск)
+    private int firstEndingAfter(LocalDateTime from) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid].isAfter(from)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void copyWithGap(ItemCalendar base, int pos, long[] ids,
+                                    LocalDateTime[] newStarts, LocalDateTime[] newEnds) {
+        int size = base.size();
+        System.arraycopy(base.bookingIds, 0, ids, 0, pos);
+        System.arraycopy(base.bookingIds, pos, ids, pos + 1, size - pos);
+        System.arraycopy(base.starts, 0, newStarts, 0, pos);
+        System.arraycopy(base.starts, pos, newStarts, pos + 1, size - pos);
+        System.arraycopy(base.ends, 0, newEnds, 0, pos);
+        System.arraycopy(base.ends, pos, newEnds, pos + 1, size - pos);
+    }
+
+    @Override
+    public String toString() {
+        return "ItemCalendar{bookingIds=" + Arrays.toString(bookingIds) + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.availability.BusyPeriodDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//Календари занятости вещей. Календарь загружается из БД при первом обращении (только одобренные бронирования,
+//которые еще не закончились) и обновляется при одобрении и отклонении бронирований на этом узле.
+//Суммарный размер ограничен числом интервалов, редко используемые календари вытесняются; время жизни записи
+//ограничивает расхождение с изменениями, сделанными на других узлах
+@Slf4j
+@Service
+public class ItemCalendarService {
+
+    private final BookingRepository repository;
+
+    private final Cache<Long, ItemCalendar> calendars;
+
+    public ItemCalendarService(BookingRepository repository,
+                               @Value("${shareit.calendar.max-intervals:100000}") long maxIntervals,
+                               @Value("${shareit.calendar.expire-after-access:10m}") Duration expireAfterAccess,
+                               @Value("${shareit.calendar.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.repository = repository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumWeight(maxIntervals)
+                .weigher((Long itemId, ItemCalendar calendar) -> calendar.size() + 1)
+                .expireAfterAccess(expireAfterAccess)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getCalendar(itemId).isFree(from, to);
+    }
+
+    public List<BusyPeriodDto> getBusyPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getCalendar(itemId).getBusyPeriods(from, to);
+    }
+
+    //Изменение применяется после фиксации транзакции, чтобы при откате в календаре не остался лишний интервал.
+    //Если календаря вещи нет в кэше, он будет загружен из БД уже с этим изменением
+    public void bookingStatusChanged(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Runnable update = () -> calendars.asMap().computeIfPresent(itemId, (id, calendar) ->
+                booking.getStatus() == BookStatus.APPROVED
+                        ? calendar.with(booking.getId(), booking.getStart(), booking.getEnd())
+                        : calendar.without(booking.getId()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private ItemCalendar getCalendar(Long itemId) {
+        return calendars.get(itemId, this::load);
+    }
+
+    private ItemCalendar load(Long itemId) {
+        ItemCalendar calendar = ItemCalendar.of(repository.findAllByItemIdAndStatusAndEndAfter(itemId,
+                BookStatus.APPROVED, LocalDateTime.now()));
+        log.debug("\nLoaded calendar of item {}: {}", itemId, calendar);
+        return calendar;
+    }
+}
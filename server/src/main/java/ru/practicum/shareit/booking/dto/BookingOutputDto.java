@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.item.dto.items.ItemMapper;
+import ru.practicum.shareit.request.dto.RequestMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -33,4 +35,18 @@ public class BookingOutputDto {
 
     private BookStatus status;          // статус бронирования
 
+    //Конструктор для JPQL-проекции BookingRepository.OUTPUT_DTO: ответ строится прямо из строки выборки.
+    //Вещь и пользователи - новые объекты, а не управляемые сущности
+    public BookingOutputDto(Long id, LocalDateTime start, LocalDateTime end, BookStatus status,
+                            Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                            Long ownerId, String ownerName, String ownerEmail,
+                            Long requestId, String requestDescription, LocalDateTime requestCreated,
+                            Long requestorId, String requestorName, String requestorEmail,
+                            Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, ItemMapper.mapProjectionToItem(itemId, itemName, itemDescription, itemAvailable,
+                        new User(ownerId, ownerName, ownerEmail, 0),
+                        RequestMapper.mapProjectionToItemRequest(requestId, requestDescription, requestCreated,
+                                requestorId, requestorName, requestorEmail)),
+                new User(bookerId, bookerName, bookerEmail, 0), status);
+    }
 }
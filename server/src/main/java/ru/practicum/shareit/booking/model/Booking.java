@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -12,16 +13,26 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "bookings")
+//Граф для ответа BookingOutputDto: вещь с владельцем и запросом, бронирующий
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {@NamedAttributeNode(value = "item", subgraph = "item"), @NamedAttributeNode("booker")},
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {@NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "request", subgraph = "request")}),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requestor"))})
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-public class Booking {
+public class Booking implements BookingPeriod {
+
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;                    // уникальный идентификатор бронирования;
 
     @Column(name = "start_date")
@@ -30,15 +41,21 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end;          // дата и время конца бронирования;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "item_id")
+    @ToString.Exclude
     private Item item;                  // вещь, которую пользователь бронирует;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
+    @ToString.Exclude
     private User booker;                // пользователь, который осуществляет бронирование;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BookStatus status;          // статус бронирования
+
+    @Version
+    @Column(name = "version")
+    private Long version;               // версия для оптимистической блокировки
 }
@@ -1,27 +1,41 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
+import ru.practicum.shareit.booking.calendar.ItemBookingPeriod;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
     BookingOutputDto addNewBooking(BookingInputDto bookingInputDto);
 
+    //Пакет бронирований одного пользователя в одной транзакции, результат - по каждому элементу
+    List<BatchResult<BookingOutputDto>> addNewBookings(Long booker, List<BookingInputDto> bookingInputDtos);
+
     BookingOutputDto approveBooking(Long id, Long bookingId, Boolean approve);
 
     BookingOutputDto getBookingInfo(Long id);
 
+    Tagged<BookingOutputDto> getTaggedBookingInfo(Long id);
+
     List<BookingOutputDto> getAllUsersBookings(Long id, String state, Integer from, Integer size);
 
-    List<BookingOutputDto> getAllOwnersBookings(List<Item> items, String state);
+    Slice<BookingOutputDto> getUsersBookingsAfter(Long id, String state, String cursor, Integer size);
+
+    List<BookingOutputDto> getAllOwnersBookings(Long id, String state, Integer from, Integer size);
 
     Booking getBooking(Long id);
 
     List<Booking> getPastUsersBookingOfItem(User user, Item item);
 
     List<Booking> getAllItemsBookings(Item item);
+
+    List<ItemBookingPeriod> getItemsLastAndNextBookings(Collection<Long> itemIds);
 }
@@ -2,16 +2,28 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.SingleFlight;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.auxiliary.exceptions.AccessNotAllowedException;
+import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
 import ru.practicum.shareit.auxiliary.exceptions.ValidationException;
 import ru.practicum.shareit.booking.model.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.calendar.ItemBookingPeriod;
+import ru.practicum.shareit.booking.calendar.ItemCalendarService;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingInputMapper;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
@@ -21,20 +33,32 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "bookings_approved_no_overlap";
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository repository;
     private final BookingInputMapper inputMapper;
     private final BookingOutputMapper outputMapper;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemCalendarService calendarService;
+    private final SingleFlight singleFlight;
 
     @Override
     public BookingOutputDto addNewBooking(BookingInputDto bookingInputDto) {
@@ -43,65 +67,180 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(bookingInputDto.getItemId())
                 .orElseThrow(() ->
                         new NotFoundException("Item " + bookingInputDto.getItemId() + " not found", bookingInputDto));
+        checkCanBook(booking, item);
+        booking.setItem(item);
+        Booking saved = repository.save(booking);
+        //Бронирования входят в ответ GET /items/{id}
+        singleFlight.forget("item", item.getId());
+        return outputMapper.mapBookingToBookingOutputDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchResult<BookingOutputDto>> addNewBookings(Long booker, List<BookingInputDto> bookingInputDtos) {
+        User user = userService.getUser(booker);
+        //Все вещи пакета загружаются одним запросом
+        Map<Long, Item> items = itemRepository.findAllById(bookingInputDtos.stream()
+                        .map(BookingInputDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<BatchResult<BookingOutputDto>> results = new ArrayList<>(bookingInputDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingInputDtos.size(); i++) {
+            BookingInputDto bookingInputDto = bookingInputDtos.get(i);
+            bookingInputDto.setBooker(booker);
+            if (bookingInputDto.getStatus() == null)
+                bookingInputDto.setStatus(BookStatus.WAITING.name());
+            try {
+                Booking booking = inputMapper.inputDtoToBooking(bookingInputDto);
+                booking.setBooker(user);
+                Item item = items.get(bookingInputDto.getItemId());
+                if (item == null)
+                    throw new NotFoundException("Item " + bookingInputDto.getItemId() + " not found", bookingInputDto);
+                checkCanBook(booking, item);
+                booking.setItem(item);
+                accepted.add(booking);
+                results.add(null);
+            } catch (ValidationException e) {
+                results.add(BatchResult.failed(i, e));
+            }
+        }
+        List<Booking> saved = repository.saveAll(accepted);
+        saved.forEach(booking -> singleFlight.forget("item", booking.getItem().getId()));
+        return BatchResult.withSaved(results, saved, outputMapper::mapBookingToBookingOutputDto);
+    }
+
+    private void checkCanBook(Booking booking, Item item) {
         if (Objects.equals(booking.getBooker().getId(), item.getOwner().getId()))
             throw new ValidationException("User can't book own item", booking);
 
         if (!item.getAvailable())
             throw new ValidationException("Item is not available", item);
-        booking.setItem(item);
-        return outputMapper.mapBookingToBookingOutputDto(repository.save(booking));
+        //Предварительная проверка по календарю; окончательная - при одобрении под блокировкой вещи
+        if (!calendarService.isFree(item.getId(), booking.getStart(), booking.getEnd()))
+            throw new DuplicateDataException("Item " + item.getId() + " is already booked for this period", booking);
     }
 
     @Override
+    @Transactional
     public BookingOutputDto approveBooking(Long id, Long bookingId, Boolean approve) {
         Booking booking = getBooking(bookingId); //проверяем наличие бронирования
         if (!Objects.equals(booking.getItem().getOwner().getId(), id))
             throw new AccessNotAllowedException("User " + id + " is not owner of item " + booking.getItem().getId() +
                     " and can't approve booking " + bookingId, booking);
         if (approve) {
+            //Блокируем строку вещи до конца транзакции: одобрения бронирований одной вещи идут по очереди
+            //(в том числе на разных узлах), бронирования разных вещей одобряются параллельно
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            if (repository.hasOverlappingBookings(booking.getItem().getId(), BookStatus.APPROVED,
+                    booking.getStart(), booking.getEnd(), booking.getId()))
+                throw new DuplicateDataException("Item " + booking.getItem().getId() +
+                        " is already booked for this period", booking);
             booking.setStatus(BookStatus.APPROVED);
         } else {
             booking.setStatus(BookStatus.REJECTED);
         }
-        return outputMapper.mapBookingToBookingOutputDto(repository.save(booking));
+        try {
+            Booking saved = repository.saveAndFlush(booking);
+            calendarService.bookingStatusChanged(saved);
+            singleFlight.forget("item", saved.getItem().getId());
+            return outputMapper.mapBookingToBookingOutputDto(saved);
+        } catch (DataIntegrityViolationException e) {
+            //Другие нарушения целостности - не пересечение бронирований, их отдаем как есть
+            if (!isOverlapViolation(e))
+                throw e;
+            throw new DuplicateDataException("Item " + booking.getItem().getId() +
+                    " is already booked for this period", booking);
+        }
+    }
+
+    //Нарушение ограничения bookings_approved_no_overlap (PostgreSQL): по имени ограничения
+    //или по SQLState 23P01 (exclusion_violation), если имя драйвер не передал
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName()))
+                return true;
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState()))
+                return true;
+        }
+        return false;
     }
 
     @Override
     public BookingOutputDto getBookingInfo(Long id) {
-        return outputMapper.mapBookingToBookingOutputDto(getBooking(id));
+        return getTaggedBookingInfo(id).body();
     }
 
     @Override
+    //В ответ входят вещь с владельцем и бронирующий, поэтому их версии входят в ETag
+    public Tagged<BookingOutputDto> getTaggedBookingInfo(Long id) {
+        Booking booking = getBooking(id);
+        Item item = booking.getItem();
+        return Tagged.of(() -> outputMapper.mapBookingToBookingOutputDto(booking),
+                booking.getId(), booking.getVersion(), item.getId(), item.getVersion(),
+                item.getOwner().getId(), item.getOwner().getVersion(),
+                booking.getBooker().getId(), booking.getBooker().getVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingOutputDto> getAllUsersBookings(Long id, String state, Integer from, Integer size) {
         String upperState = state.toUpperCase();
-        User booker = userService.getUser(id);
+        userService.checkUserExists(id);
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
-        Page<Booking> bookingList = switch (upperState) {
-            case "ALL" -> repository.findAllByBooker(booker, pageable);
-            case "WAITING", "REJECTED" -> repository.findAllByBookerAndStatus(booker,
+        Page<BookingOutputDto> bookingList = switch (upperState) {
+            case "ALL" -> repository.findAllByBookerId(id, pageable);
+            case "WAITING", "REJECTED" -> repository.findAllByBookerIdAndStatus(id,
                     BookStatus.valueOf(upperState), pageable);
-            case "PAST" -> repository.findAllByBookerAndEndBefore(booker, LocalDateTime.now(), pageable);
-            case "FUTURE" -> repository.findAllByBookerAndStartAfter(booker, LocalDateTime.now(), pageable);
-            case "CURRENT" -> repository.findCurrentUsersBookings(booker, LocalDateTime.now(), pageable);
+            case "PAST" -> repository.findAllByBookerIdAndEndBefore(id, LocalDateTime.now(), pageable);
+            case "FUTURE" -> repository.findAllByBookerIdAndStartAfter(id, LocalDateTime.now(), pageable);
+            case "CURRENT" -> repository.findCurrentUsersBookings(id, LocalDateTime.now(), pageable);
             default -> throw new IllegalStateException("Unexpected value: " + state.toUpperCase());
         };
-        return outputMapper.mapBookingListToDtoList(bookingList.getContent());
+        return bookingList.getContent();
     }
 
     @Override
-    public List<BookingOutputDto> getAllOwnersBookings(List<Item> ownersItems, String state) {
+    @Transactional(readOnly = true)
+    public Slice<BookingOutputDto> getUsersBookingsAfter(Long id, String state, String cursor, Integer size) {
         String upperState = state.toUpperCase();
-        List<Booking> bookingList = switch (upperState) {
-            case "ALL" -> repository.findAllBookingsOfItems(ownersItems);
-            case "WAITING", "REJECTED" -> repository.findBookingsOfItemByStatus(ownersItems,
-                    BookStatus.valueOf(upperState));
-            case "PAST" -> repository.findPastUsersBookings(ownersItems, LocalDateTime.now());
-            case "FUTURE" -> repository.findFutureUsersBookings(ownersItems, LocalDateTime.now());
-            case "CURRENT" -> repository.findCurrentBookingsOfItems(ownersItems, LocalDateTime.now());
+        userService.checkUserExists(id);
+        BookingCursor after = BookingCursor.decode(cursor);
+        //Для keyset-пагинации нужен устойчивый порядок, поэтому id участвует в сортировке
+        Pageable pageable = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+        return switch (upperState) {
+            case "ALL" -> repository.findUsersBookingsAfter(id, after.getStart(), after.getId(), pageable);
+            case "WAITING", "REJECTED" -> repository.findUsersBookingsByStatusAfter(id,
+                    BookStatus.valueOf(upperState), after.getStart(), after.getId(), pageable);
+            case "PAST" -> repository.findPastUsersBookingsAfter(id, LocalDateTime.now(),
+                    after.getStart(), after.getId(), pageable);
+            case "FUTURE" -> repository.findFutureUsersBookingsAfter(id, LocalDateTime.now(),
+                    after.getStart(), after.getId(), pageable);
+            case "CURRENT" -> repository.findCurrentUsersBookingsAfter(id, LocalDateTime.now(),
+                    after.getStart(), after.getId(), pageable);
             default -> throw new IllegalStateException("Unexpected value: " + state.toUpperCase());
         };
-        return outputMapper.mapBookingListToDtoList(bookingList);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingOutputDto> getAllOwnersBookings(Long id, String state, Integer from, Integer size) {
+        String upperState = state.toUpperCase();
+        userService.checkUserExists(id);
+        Pageable pageable = PageRequest.of(from / size, size);
+        Page<BookingOutputDto> bookingList = switch (upperState) {
+            case "ALL" -> repository.findAllOwnersBookings(id, pageable);
+            case "WAITING", "REJECTED" -> repository.findOwnersBookingsByStatus(id,
+                    BookStatus.valueOf(upperState), pageable);
+            case "PAST" -> repository.findPastOwnersBookings(id, LocalDateTime.now(), pageable);
+            case "FUTURE" -> repository.findFutureOwnersBookings(id, LocalDateTime.now(), pageable);
+            case "CURRENT" -> repository.findCurrentOwnersBookings(id, LocalDateTime.now(), pageable);
+            default -> throw new IllegalStateException("Unexpected value: " + state.toUpperCase());
+        };
+        return bookingList.getContent();
     }
 
     @Override
@@ -109,6 +248,13 @@ public class BookingServiceImpl implements BookingService {
         return repository.findAllByItemAndStatus(item, BookStatus.WAITING);
     }
 
+    @Override
+    public List<ItemBookingPeriod> getItemsLastAndNextBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty())
+            return List.of();
+        return repository.findLastAndNextBookingsOfItems(itemIds, BookStatus.WAITING, LocalDateTime.now());
+    }
+
     @Override
     public Booking getBooking(Long id) {
         return repository.findById(id).orElseThrow(() -> new NotFoundException("Not found booking id = " + id, id));
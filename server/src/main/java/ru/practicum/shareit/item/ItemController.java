@@ -2,14 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
+import ru.practicum.shareit.item.dto.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.comments.CommentDto;
 import ru.practicum.shareit.item.dto.comments.CommentInputDto;
 import ru.practicum.shareit.item.dto.items.ItemDto;
 import ru.practicum.shareit.item.dto.items.ItemOutputDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,54 +32,79 @@ public class ItemController {
     @PostMapping
     public ResponseEntity<ItemOutputDto> createItem(@RequestHeader("X-Sharer-User-Id") Long id,
                                                     @RequestBody ItemDto itemDto) {
-        log.info("\nServer: Получен запрос на добавление item {} от user {}", itemDto, id);
+        log.info("Server: Получен запрос на добавление item от user={}", id);
         itemDto.setOwner(id);
         ItemOutputDto addedItem = itemService.createItem(itemDto);
-        log.info("\nWas added {}", addedItem);
+        log.debug("Was added item id={}", addedItem.getId());
         return ResponseEntity.ok(addedItem);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult<ItemOutputDto>>> createItems(@RequestHeader("X-Sharer-User-Id") Long id,
+                                                                         @RequestBody List<ItemDto> itemDtos) {
+        log.info("Server: Получен запрос на добавление {} items от user {}", itemDtos.size(), id);
+        List<BatchResult<ItemOutputDto>> results = itemService.createItems(id, itemDtos);
+        log.debug("Обработан пакет из {} items", results.size());
+        return ResponseEntity.ok(results);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemOutputDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long owner,
                                                     @PathVariable Long itemId,
                                                     @RequestBody ItemDto itemDto) {
-        log.info("\nServer: Получен запрос на изменение item {} данных на {} от user {}", itemId, itemDto, owner);
+        log.info("Server: Получен запрос на изменение item={} от user={}", itemId, owner);
         ItemOutputDto updatedItem = itemService.updateItem(owner, itemId, itemDto);
-        log.info("\nWas updated {}", itemDto);
+        log.debug("Was updated item id={}", updatedItem.getId());
         return ResponseEntity.ok(updatedItem);
     }
 
     @DeleteMapping("/{itemId}")
     public ResponseEntity<ItemOutputDto> deleteItem(@RequestHeader("X-Sharer-User-Id") Long id,
                                                     @PathVariable Long itemId) {
-        log.info("\nServer: Получен запрос на удаление item {} от user {}", itemId, id);
+        log.info("Server: Получен запрос на удаление item {} от user {}", itemId, id);
         ItemOutputDto deletedItem = itemService.deleteItem(id, itemId);
-        log.info("\nWas deleted {}", deletedItem);
+        log.debug("Was deleted item id={}", deletedItem.getId());
         return ResponseEntity.ok(deletedItem);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemOutputDto> getItemById(@PathVariable Long itemId) {
-        log.info("\nServer: Получен запрос на просмотр данных item {}", itemId);
-        ItemOutputDto receivedItem = itemService.getItemById(itemId);
-        log.info("\nWas received item {}", receivedItem);
-        return ResponseEntity.ok(receivedItem);
+    public ResponseEntity<ItemOutputDto> getItemById(@PathVariable Long itemId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Server: Получен запрос на просмотр данных item {}", itemId);
+        Tagged<ItemOutputDto> receivedItem = itemService.getTaggedItemById(itemId);
+        log.debug("Was received item id={} ETag={}", itemId, receivedItem.etag());
+        return receivedItem.toResponse(ifNoneMatch);
     }
 
     @GetMapping
     public ResponseEntity<List<ItemOutputDto>> getAllItemsOfOwner(@RequestHeader("X-Sharer-User-Id") Long id) {
-        log.info("\nServer: Получен запрос на получение всех items пользователя {}", id);
+        log.info("Server: Получен запрос на получение всех items пользователя {}", id);
         List<ItemOutputDto> itemDtos = itemService.getAllItemsOfOwner(id);
-        log.info("\nWas received list of {} elements", itemDtos.size());
+        log.debug("Was received list of {} items", itemDtos.size());
         return ResponseEntity.ok(itemDtos);
     }
 
-    // Get.../items/search?text={text}
+    // Get.../items/{itemId}/availability?from={from}&to={to}
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getItemAvailability(@PathVariable Long itemId,
+                                                                   @RequestParam(name = "from")
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                   @RequestParam(name = "to")
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Server: Получен запрос на проверку занятости item {} с {} по {}", itemId, from, to);
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemId, from, to);
+        log.debug("Was received availability of item id={}", itemId);
+        return ResponseEntity.ok(availability);
+    }
+
+    // Get.../items/search?text={text}&from={from}&size={size}
     @GetMapping("/search")
-    public ResponseEntity<List<ItemOutputDto>> getItemsByContext(@RequestParam(name = "text") String query) {
-        log.info("\nПолучен запрос на получение всех items по контексту ...{}...", query);
-        List<ItemOutputDto> receivedItems = itemService.getItemsByContext(query);
-        log.info("\nWas received list by context of {} elements", receivedItems.size());
+    public ResponseEntity<List<ItemOutputDto>> getItemsByContext(@RequestParam(name = "text") String query,
+                                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                 @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Получен запрос на получение всех items по контексту ...{}... from {} size {}", query, from, size);
+        List<ItemOutputDto> receivedItems = itemService.getItemsByContext(query, from, size);
+        log.debug("Was received list by context of {} items", receivedItems.size());
         return ResponseEntity.ok(receivedItems);
     }
 
@@ -82,12 +113,12 @@ public class ItemController {
     public ResponseEntity<CommentDto> addNewComment(@RequestHeader("X-Sharer-User-Id") Long id,
                                     @PathVariable Long itemId,
                                     @RequestBody CommentInputDto newComment) {
-        log.info("\nПолучен запрос на добавление комментария от пользователя {} по item {} textsize {}",
+        log.info("Получен запрос на добавление комментария от пользователя {} по item {} textsize {}",
                 id, itemId, newComment.getText().length());
         newComment.setItem(itemId);
         newComment.setAuthorName(id);
         CommentDto commentOutput = itemService.addNewComment(newComment);
-        log.info("\nДобавлен комментарий {}", commentOutput);
+        log.debug("Добавлен комментарий id={}", commentOutput.getId());
         return ResponseEntity.ok(commentOutput);
     }
 
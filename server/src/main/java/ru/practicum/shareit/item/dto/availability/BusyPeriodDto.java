@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusyPeriodDto {
+
+    private Long bookingId;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
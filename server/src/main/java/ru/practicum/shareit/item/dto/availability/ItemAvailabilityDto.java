@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    //Вещь доступна для аренды и в интервале нет одобренных бронирований
+    private Boolean available;
+
+    private List<BusyPeriodDto> busy;
+}
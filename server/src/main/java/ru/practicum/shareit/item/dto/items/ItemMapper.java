@@ -23,6 +23,18 @@ public class ItemMapper {
         return item;
     }
 
+    //Вещь из строки проекции - не управляемая сущность, используется только для построения ответа
+    public static Item mapProjectionToItem(Long id, String name, String description, Boolean available,
+                                           User owner, ItemRequest request) {
+        Item item = new Item(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+
     public static ItemOutputDto mapItemToItemOutputDto(Item item) {
         ItemOutputDto itemOutputDto = new ItemOutputDto();
         itemOutputDto.setId(item.getId());
@@ -6,9 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.comments.ShortCommentDto;
 import ru.practicum.shareit.item.model.PairOfDate;
+import ru.practicum.shareit.request.dto.RequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -34,4 +36,15 @@ public class ItemOutputDto {
 
     private List<ShortCommentDto> comments;
 
+    //Конструктор для JPQL-проекции ItemRepository.OUTPUT_DTO: ответ строится прямо из строки выборки,
+    //бронирования заполняются отдельно
+    public ItemOutputDto(Long id, String name, String description, Boolean available,
+                         Long ownerId, String ownerName, String ownerEmail,
+                         Long requestId, String requestDescription, LocalDateTime requestCreated,
+                         Long requestorId, String requestorName, String requestorEmail) {
+        this(id, name, description, available, new User(ownerId, ownerName, ownerEmail, 0),
+                RequestMapper.mapProjectionToItemRequest(requestId, requestDescription, requestCreated,
+                        requestorId, requestorName, requestorEmail),
+                null, null, List.of());
+    }
 }
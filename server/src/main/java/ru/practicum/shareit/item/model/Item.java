@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.comments.ShortCommentDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -15,6 +19,13 @@ import java.util.List;
  */
 @Entity
 @Table(name = "items")
+//Граф для ответа ItemOutputDto: владелец и запрос вместе с автором запроса
+@NamedEntityGraph(name = Item.WITH_OWNER_AND_REQUEST,
+        attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode(value = "request", subgraph = "request")},
+        subgraphs = @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requestor")))
+//Служебные поля прокси Hibernate не сериализуются
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Getter
 @Setter
 @ToString
@@ -23,9 +34,12 @@ import java.util.List;
 @Builder
 public class Item {
 
+    public static final String WITH_OWNER_AND_REQUEST = "Item.withOwnerAndRequest";
+
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id; //— уникальный идентификатор вещи;
 
     @Column(name = "name")
@@ -37,14 +51,23 @@ public class Item {
     @Column(name = "is_available")
     private Boolean available; //— статус о том, доступна или нет вещь для аренды;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
+    @ToString.Exclude
     private User owner; //— владелец вещи;
 
-    @ManyToOne(optional = true)
+    @ManyToOne(fetch = FetchType.LAZY, optional = true)
     @JoinColumn(name = "request_id", nullable = true)
+    @ToString.Exclude
     private ItemRequest request; //— ссылка на соответствующий запрос, по которому вещь была создана
 
+    //Версия меняется при каждом изменении и входит в ETag. Примитив - чтобы ссылки вида new Item(id)
+    //по-прежнему считались существующими сущностями, а не новыми
+    @Version
+    @JsonIgnore
+    @Column(name = "version")
+    private long version;
+
     //Ниже перечислены transient-поля
     @Transient
     private Booking lastBooking;
@@ -1,20 +1,57 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestItemView;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
 
-    List<Item> findAllByOwner(User owner);
+    //Владелец и запрос загружаются лениво. Методы, результат которых отдается как ItemOutputDto,
+    //загружают граф Item.WITH_OWNER_AND_REQUEST тем же запросом
+    @Override
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    Optional<Item> findById(Long id);
 
-    List<Item> findAllByAvailableTrueAndNameContainingIgnoreCase(String query);
+    @Override
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllByOwnerId(Long ownerId);
+
+    //Список вещей собственника только для чтения: ответ строится конструктором ItemOutputDto прямо из строк выборки
+    @Query("SELECT new ru.practicum.shareit.item.dto.items.ItemOutputDto(i.id, i.name, i.description, i.available, " +
+            "o.id, o.name, o.email, r.id, r.description, r.created, rq.id, rq.name, rq.email) " +
+            "FROM Item i JOIN i.owner o LEFT JOIN i.request r LEFT JOIN r.requestor rq " +
+            "WHERE o.id = :ownerId ORDER BY i.id")
+    List<ItemOutputDto> findOutputDtosByOwnerId(Long ownerId);
 
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
 
+    //Вещи, созданные в ответ на запросы, для списков запросов (проекция, без загрузки сущностей)
+    @Query("SELECT i.id AS id, i.name AS name, i.owner.id AS ownerId, i.request.id AS requestId, " +
+            "i.version AS version FROM Item i WHERE i.request.id IN :requestIds")
+    List<RequestItemView> findRequestItemViews(Collection<Long> requestIds);
+
+    Slice<Item> findAllByAvailableTrue(Pageable pageable);
+
+    //SELECT ... FOR UPDATE: блокировка строки вещи до конца транзакции
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(Long id);
+
 }
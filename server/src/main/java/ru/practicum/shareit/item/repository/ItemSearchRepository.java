@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+//Полнотекстовый поиск доступных вещей по названию и описанию
+public interface ItemSearchRepository {
+
+    List<Item> searchAvailableItems(String text, int from, int size);
+
+}
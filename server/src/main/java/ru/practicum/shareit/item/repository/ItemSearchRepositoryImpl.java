@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//Реализация поиска. В Postgres подстрока ищется по триграммному индексу idx_items_search_trgm
+//(см. db/vendor/postgresql), результаты ранжируются по совпадению в названии и по similarity.
+//Для остальных БД (H2 в тестах) используется переносимый LIKE с тем же порядком совпадений в названии.
+//Нативный запрос выбирает только id страницы, сами вещи загружаются вторым запросом с графом
+//Item.WITH_OWNER_AND_REQUEST - иначе владелец и запрос каждой вещи подгружались бы отдельно
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    //Выражение должно совпадать с выражением индекса, иначе Postgres не сможет его использовать
+    private static final String SEARCH_TEXT = "lower(coalesce(i.name, '') || ' ' || i.description)";
+
+    private static final String POSTGRES_SEARCH = "SELECT i.id FROM items i " +
+            "WHERE i.is_available AND " + SEARCH_TEXT + " LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY (lower(coalesce(i.name, '')) LIKE :pattern ESCAPE '\\') DESC, " +
+            "similarity(" + SEARCH_TEXT + ", :text) DESC, i.id " +
+            "LIMIT :size OFFSET :from";
+
+    private static final String FALLBACK_SEARCH = "SELECT i.id FROM items i " +
+            "WHERE i.is_available AND " + SEARCH_TEXT + " LIKE :pattern ESCAPE '\\' " +
+            "ORDER BY CASE WHEN lower(coalesce(i.name, '')) LIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END, i.id " +
+            "LIMIT :size OFFSET :from";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private Boolean postgres;
+
+    private static final String LOAD_PAGE = "SELECT i FROM Item i WHERE i.id IN :ids";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableItems(String text, int from, int size) {
+        String lowerText = text.toLowerCase();
+        Query query = isPostgres()
+                ? em.createNativeQuery(POSTGRES_SEARCH, Long.class).setParameter("text", lowerText)
+                : em.createNativeQuery(FALLBACK_SEARCH, Long.class);
+        List<Long> ids = query.setParameter("pattern", "%" + escapeLike(lowerText) + "%")
+                .setParameter("size", size)
+                .setParameter("from", from)
+                .getResultList();
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, Integer> positions = IntStream.range(0, ids.size()).boxed()
+                .collect(Collectors.toMap(ids::get, Function.identity()));
+        return em.createQuery(LOAD_PAGE, Item.class)
+                .setHint("jakarta.persistence.fetchgraph", em.getEntityGraph(Item.WITH_OWNER_AND_REQUEST))
+                .setParameter("ids", ids)
+                .getResultStream()
+                .sorted(Comparator.comparing(item -> positions.get(item.getId())))
+                .toList();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
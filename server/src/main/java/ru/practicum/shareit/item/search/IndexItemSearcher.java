@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//Поиск по индексу в памяти (shareit.search.mode=index). Индекс строится до запуска веб-сервера
+//и обновляется при создании, изменении и удалении вещей через ItemService. Из БД читается только найденная страница
+//по первичному ключу - в ItemOutputDto входят владелец и запрос, которые индекс не хранит
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+@RequiredArgsConstructor
+public class IndexItemSearcher implements ItemSearcher, SmartInitializingSingleton {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository repository;
+
+    //Индекс, по которому идет поиск. Перестроенный индекс заменяет его целиком, поиск не видит неполный индекс
+    private volatile ItemSearchIndex index = new ItemSearchIndex();
+
+    //Индекс, который сейчас строится: изменения вещей применяются и к нему
+    private volatile ItemSearchIndex building;
+
+    //Вещи, измененные во время перестроения: прочитанные из БД раньше изменения строки к ним не применяются
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    //Вызывается после создания всех бинов, до запуска веб-сервера
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        ItemSearchIndex fresh = new ItemSearchIndex();
+        changedDuringRebuild.clear();
+        building = fresh;
+        try {
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            Slice<Item> items;
+            do {
+                items = repository.findAllByAvailableTrue(pageable);
+                synchronized (fresh) {
+                    items.stream()
+                            .filter(item -> !changedDuringRebuild.contains(item.getId()))
+                            .forEach(item -> apply(fresh, item));
+                }
+                pageable = items.nextPageable();
+            } while (items.hasNext());
+            index = fresh;
+        } finally {
+            building = null;
+        }
+        log.info("\nItem search index was built, {} items", fresh.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> ids = index.search(text, from, size);
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, Item> found = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        //Вещи, удаленные в обход сервиса (каскадно вместе с владельцем), убираем из индекса
+        ids.stream()
+                .filter(id -> !found.containsKey(id))
+                .forEach(this::itemDeleted);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    //Сначала читается строящийся индекс, затем текущий: если перестроение закончилось между чтениями,
+    //текущим уже будет новый индекс и изменение не потеряется
+    @Override
+    public void itemSaved(Item item) {
+        ItemSearchIndex target = building;
+        if (target != null) {
+            synchronized (target) {
+                changedDuringRebuild.add(item.getId());
+                apply(target, item);
+            }
+        }
+        apply(index, item);
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        ItemSearchIndex target = building;
+        if (target != null) {
+            synchronized (target) {
+                changedDuringRebuild.add(itemId);
+                target.remove(itemId);
+            }
+        }
+        index.remove(itemId);
+    }
+
+    private static void apply(ItemSearchIndex target, Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            target.put(item.getId(), item.getName(), item.getDescription());
+        } else {
+            target.remove(item.getId());
+        }
+    }
+}
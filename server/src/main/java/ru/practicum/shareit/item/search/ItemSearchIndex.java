@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Инвертированный индекс триграмм названия и описания вещей.
+//Семантика совпадает с поиском в БД: подстрока ищется в lower(name || ' ' || description),
+//вещи с совпадением в названии идут первыми, далее по возрастанию id.
+//Триграммы запроса сужают круг кандидатов, совпадение подстроки проверяется по сохраненному тексту;
+//запросы короче триграммы проверяются перебором
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final NavigableMap<Long, IndexedText> texts = new TreeMap<>();
+
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String name, String description) {
+        String lowerName = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        String lowerText = lowerName + " " + (description == null ? "" : description.toLowerCase(Locale.ROOT));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            texts.put(id, new IndexedText(lowerName, lowerText));
+            for (String gram : grams(lowerText)) {
+                postings.computeIfAbsent(gram, g -> new LongPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> nameMatches = new ArrayList<>();
+        List<Long> textMatches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                texts.forEach((id, indexed) -> collect(id, indexed, query, nameMatches, textMatches));
+            } else {
+                List<LongPostingList> lists = new ArrayList<>();
+                for (String gram : grams(query)) {
+                    LongPostingList list = postings.get(gram);
+                    if (list == null)
+                        return List.of();
+                    lists.add(list);
+                }
+                for (long id : LongPostingList.intersect(lists)) {
+                    collect(id, texts.get(id), query, nameMatches, textMatches);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        nameMatches.addAll(textMatches);
+        if (from >= nameMatches.size())
+            return List.of();
+        return List.copyOf(nameMatches.subList(from, Math.min(nameMatches.size(), from + size)));
+    }
+
+    private static void collect(Long id, IndexedText indexed, String query,
+                                List<Long> nameMatches, List<Long> textMatches) {
+        if (indexed.name().contains(query)) {
+            nameMatches.add(id);
+        } else if (indexed.text().contains(query)) {
+            textMatches.add(id);
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        IndexedText old = texts.remove(id);
+        if (old == null)
+            return;
+        for (String gram : grams(old.text())) {
+            LongPostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.isEmpty())
+                postings.remove(gram);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private record IndexedText(String name, String text) {
+    }
+}
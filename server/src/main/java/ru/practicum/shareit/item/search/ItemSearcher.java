@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+//Способ поиска вещей для GET /items/search. Реализация выбирается параметром shareit.search.mode
+public interface ItemSearcher {
+
+    List<Item> search(String text, int from, int size);
+
+    //Уведомления об изменении вещей - нужны реализациям, которые хранят собственный индекс
+    default void itemSaved(Item item) {
+    }
+
+    default void itemDeleted(Long itemId) {
+    }
+}
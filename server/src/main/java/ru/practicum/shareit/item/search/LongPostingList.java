@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+//Отсортированный по возрастанию список id вещей на примитивном массиве (без упаковки в Long)
+class LongPostingList {
+
+    private long[] ids = new long[4];
+
+    private int size;
+
+    boolean add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0)
+            return false;
+        pos = -pos - 1;
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, size * 2);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0)
+            return false;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    //Пересечение списков: перебираем самый короткий и ищем его элементы в остальных
+    static long[] intersect(List<LongPostingList> lists) {
+        List<LongPostingList> sorted = lists.stream()
+                .sorted(Comparator.comparingInt(LongPostingList::size))
+                .toList();
+        LongPostingList smallest = sorted.get(0);
+        long[] result = new long[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < sorted.size() && inAll; j++) {
+                inAll = sorted.get(j).contains(id);
+            }
+            if (inAll)
+                result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
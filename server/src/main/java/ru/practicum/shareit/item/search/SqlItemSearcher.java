@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+//Поиск средствами БД (режим по умолчанию)
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "sql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlItemSearcher implements ItemSearcher {
+
+    private final ItemRepository repository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return repository.searchAvailableItems(text, from, size);
+    }
+}
@@ -1,32 +1,42 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.comments.CommentDto;
 import ru.practicum.shareit.item.dto.comments.CommentInputDto;
+import ru.practicum.shareit.item.dto.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.items.ItemDto;
 import ru.practicum.shareit.item.dto.items.ItemOutputDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemOutputDto createItem(ItemDto itemDto);
 
+    //Создание пакета вещей одного владельца в одной транзакции, результат - по каждому элементу
+    List<BatchResult<ItemOutputDto>> createItems(Long owner, List<ItemDto> itemDtos);
+
     ItemOutputDto updateItem(Long owner, Long itemId, ItemDto itemDto);
 
     ItemOutputDto deleteItem(Long id, Long itemId);
 
     ItemOutputDto getItemById(Long id);
 
+    Tagged<ItemOutputDto> getTaggedItemById(Long id);
+
     List<ItemOutputDto> getAllItemsOfOwner(Long l);
 
-    List<ItemOutputDto> getItemsByContext(String query);
+    List<ItemOutputDto> getItemsByContext(String query, Integer from, Integer size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     Item getItem(Long id);
 
-    List<Item> getItemsList(User owner);
+    List<Item> getItemsList(Long ownerId);
 
     CommentDto addNewComment(CommentInputDto commentInput);
 
@@ -3,12 +3,24 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.SingleFlight;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.auxiliary.exceptions.AccessNotAllowedException;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
 import ru.practicum.shareit.auxiliary.exceptions.ValidationException;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
+import ru.practicum.shareit.booking.calendar.ItemBookingPeriod;
+import ru.practicum.shareit.booking.calendar.ItemCalendarService;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.availability.BusyPeriodDto;
+import ru.practicum.shareit.item.dto.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.comments.CommentDto;
 import ru.practicum.shareit.item.dto.comments.CommentInputDto;
 import ru.practicum.shareit.item.dto.comments.CommentMapper;
@@ -17,11 +29,15 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.PairOfDate;
+import ru.practicum.shareit.item.search.ItemSearcher;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,12 +48,60 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingService bookingService;
     private final CommentRepository commentRepository;
+    private final RequestRepository requestRepository;
+    private final ItemSearcher itemSearcher;
+    private final ItemCalendarService calendarService;
+    private final SingleFlight singleFlight;
+
+    @Value("${shareit.search.max-size:100}")
+    private int searchMaxSize;
 
     @Override
     public ItemOutputDto createItem(ItemDto itemDto) {
-        User user = userService.getUser(itemDto.getOwner()); //Проверка существования user
-        Item item = ItemMapper.mapItemDtoToItem(itemDto);
-        return ItemMapper.mapItemToItemOutputDto(repository.save(item));
+        userService.checkUserExists(itemDto.getOwner());
+        Item item = repository.save(ItemMapper.mapItemDtoToItem(itemDto));
+        itemSearcher.itemSaved(item);
+        singleFlight.forgetAll("search");
+        return ItemMapper.mapItemToItemOutputDto(item);
+    }
+
+    @Override
+    @Transactional
+    public List<BatchResult<ItemOutputDto>> createItems(Long owner, List<ItemDto> itemDtos) {
+        userService.checkUserExists(owner);
+        //Существование всех упомянутых запросов проверяется одним запросом к БД
+        Set<Long> requestIds = requestRepository.findExistingIds(itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .toList());
+        List<BatchResult<ItemOutputDto>> results = new ArrayList<>(itemDtos.size());
+        List<Item> accepted = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            itemDto.setOwner(owner);
+            if (itemDto.getRequestId() != null && !requestIds.contains(itemDto.getRequestId())) {
+                results.add(BatchResult.failed(i,
+                        new NotFoundException("Request " + itemDto.getRequestId() + " not found", itemDto)));
+                continue;
+            }
+            accepted.add(ItemMapper.mapItemDtoToItem(itemDto));
+            results.add(null);
+        }
+        List<Item> saved = repository.saveAll(accepted);
+        //Индекс поиска обновляется после фиксации транзакции, чтобы при откате в нем не остались лишние вещи
+        Runnable update = () -> saved.forEach(itemSearcher::itemSaved);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+        singleFlight.forgetAll("search");
+        return BatchResult.withSaved(results, saved, ItemMapper::mapItemToItemOutputDto);
     }
 
     @Override
@@ -60,7 +124,10 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null)
             oldItem.setAvailable(itemDto.getAvailable());
 
-        return ItemMapper.mapItemToItemOutputDto(repository.save(oldItem));
+        Item item = repository.save(oldItem);
+        itemSearcher.itemSaved(item);
+        itemChanged(itemId);
+        return ItemMapper.mapItemToItemOutputDto(item);
     }
 
     @Override
@@ -69,38 +136,96 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(id))
             throw new AccessNotAllowedException("Request not sent by owner. Deleting is forbidden", item);
         repository.deleteById(itemId);
+        itemSearcher.itemDeleted(itemId);
+        itemChanged(itemId);
         return ItemMapper.mapItemToItemOutputDto(item);
     }
 
+    //Чтения вещи и поиска, начатые до изменения, не отдаются запросам после него
+    private void itemChanged(Long itemId) {
+        singleFlight.forget("item", itemId);
+        singleFlight.forgetAll("search");
+    }
+
     @Override
     public ItemOutputDto getItemById(Long id) {
+        return getTaggedItemById(id).body();
+    }
+
+    @Override
+    public Tagged<ItemOutputDto> getTaggedItemById(Long id) {
+        //Одновременные чтения одной вещи выполняют запросы к БД и строят DTO один раз на всех
+        return singleFlight.execute("item", id, () -> loadTaggedItem(id).memoized());
+    }
+
+    //Последнее и следующее бронирования зависят от текущего времени, поэтому в ETag входят сами выбранные
+    //бронирования, а не только версия вещи. Имена авторов комментариев меняются вместе с версией автора
+    private Tagged<ItemOutputDto> loadTaggedItem(Long id) {
         Item item = getItem(id);
         List<Booking> itemsBooking = bookingService.getAllItemsBookings(item);
-        item.setLastBooking(getItemsLastBooking(itemsBooking));
-        item.setNextBooking(getItemsNextBooking(itemsBooking));
+        Booking lastBooking = getItemsLastBooking(itemsBooking);
+        Booking nextBooking = getItemsNextBooking(itemsBooking);
         List<Comment> comments = commentRepository.findAllByItem(item);
-        item.setComments(CommentMapper.mapCommentListToShortCommentList(comments));
-        return ItemMapper.mapItemToItemOutputDto(item);
+        List<List<Long>> commentsState = comments.stream()
+                .map(c -> List.of(c.getId(), c.getAuthor().getId(), c.getAuthor().getVersion()))
+                .toList();
+        return Tagged.of(() -> {
+                    item.setLastBooking(lastBooking);
+                    item.setNextBooking(nextBooking);
+                    item.setComments(CommentMapper.mapCommentListToShortCommentList(comments));
+                    return ItemMapper.mapItemToItemOutputDto(item);
+                },
+                item.getId(), item.getVersion(), item.getOwner().getId(), item.getOwner().getVersion(),
+                item.getRequest() == null ? null : item.getRequest().getId(),
+                bookingState(lastBooking), bookingState(nextBooking), commentsState);
+    }
+
+    private static List<Long> bookingState(Booking booking) {
+        return booking == null ? null : List.of(booking.getId(), booking.getVersion());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemOutputDto> getAllItemsOfOwner(Long id) {
-        User owner = userService.getUser(id); //Проверка существования owner
-        List<Item> items = getItemsList(owner);
-        for (Item i : items) {
-            List<Booking> bookingsOfItem = bookingService.getAllItemsBookings(i);
-            i.setLastBooking(getItemsLastBooking(bookingsOfItem));
-            i.setNextBooking(getItemsNextBooking(bookingsOfItem));
+        userService.checkUserExists(id);
+        //Вещи с владельцем и запросом выбираются сразу в DTO, без загрузки сущностей
+        List<ItemOutputDto> items = repository.findOutputDtosByOwnerId(id);
+        //Последнее и следующее бронирования всех вещей получаем одним запросом
+        Map<Long, List<ItemBookingPeriod>> bookingsByItem = bookingService.getItemsLastAndNextBookings(items.stream()
+                        .map(ItemOutputDto::getId)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(ItemBookingPeriod::getItemId));
+        for (ItemOutputDto i : items) {
+            List<ItemBookingPeriod> bookingsOfItem = bookingsByItem.getOrDefault(i.getId(), List.of());
+            i.setLastBooking(toPairOfDate(lastBooking(bookingsOfItem)));
+            i.setNextBooking(toPairOfDate(nextBooking(bookingsOfItem)));
         }
-        return ItemMapper.mapItemsListToItemOutputDtoList(getItemsList(owner));
+        return items;
     }
 
     @Override
-    public List<ItemOutputDto> getItemsByContext(String query) {
+    @Transactional(readOnly = true)
+    public List<ItemOutputDto> getItemsByContext(String query, Integer from, Integer size) {
         if (Strings.isBlank(query))
             return List.of();
-        return ItemMapper
-                .mapItemsListToItemOutputDtoList(repository.findAllByAvailableTrueAndNameContainingIgnoreCase(query));
+        //Размер страницы ограничен сверху, чтобы поиск по короткой строке не выгружал всю таблицу
+        String text = query.trim();
+        int pageSize = Math.min(size, searchMaxSize);
+        return singleFlight.execute("search", List.of(text, from, pageSize), () ->
+                ItemMapper.mapItemsListToItemOutputDtoList(itemSearcher.search(text, from, pageSize)));
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to))
+            throw new ValidationException("Start of period must be before its end", Map.of("from", from, "to", to));
+        Item item = getItem(itemId); //Проверка существования item
+        //Календарь хранит только незавершенные бронирования, поэтому проверяется будущая часть интервала
+        LocalDateTime now = LocalDateTime.now();
+        List<BusyPeriodDto> busy = to.isAfter(now)
+                ? calendarService.getBusyPeriods(itemId, from.isAfter(now) ? from : now, to)
+                : List.of();
+        return new ItemAvailabilityDto(itemId, from, to, item.getAvailable() && busy.isEmpty(), busy);
     }
 
     @Override
@@ -109,8 +234,8 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<Item> getItemsList(User owner) {
-        return repository.findAllByOwner(owner);
+    public List<Item> getItemsList(Long ownerId) {
+        return repository.findAllByOwnerId(ownerId);
     }
 
     @Override
@@ -119,29 +244,45 @@ public class ItemServiceImpl implements ItemService {
         Item item = getItem(newComment.getItem()); //Проверка существования item
         //проверка, что пользователь действительно пользовался вещью
         List<Booking> bookings = bookingService.getPastUsersBookingOfItem(user, item);
-        log.info("\nList of bookings {}", bookings);
+        if (log.isDebugEnabled())
+            log.debug("Past bookings of user={} item={}: {}", user.getId(), item.getId(),
+                    bookings.stream().map(Booking::getId).toList());
         if (bookings.isEmpty())
             throw new ValidationException("User " + user.getId() + " not used item " + item.getId() +
                     ". Comment is prohibited", newComment);
         Comment comment = new Comment(newComment.getText(), item, user);
-        return CommentMapper.mapCommentToCommentDto(commentRepository.save(comment));
+        CommentDto saved = CommentMapper.mapCommentToCommentDto(commentRepository.save(comment));
+        singleFlight.forget("item", item.getId());
+        return saved;
     }
 
     @Override
     public Booking getItemsLastBooking(List<Booking> bookings) {
+        return lastBooking(bookings);
+    }
+
+    @Override
+    public Booking getItemsNextBooking(List<Booking> bookings) {
+        return nextBooking(bookings);
+    }
+
+    private static <T extends BookingPeriod> T lastBooking(List<T> bookings) {
         LocalDateTime now = LocalDateTime.now();
         return bookings.stream()
                 .filter(b -> b.getEnd().isBefore(now))
-                .max(Comparator.comparing(Booking::getStart))
+                .max(Comparator.comparing(BookingPeriod::getStart))
                 .orElse(null);
     }
 
-    @Override
-    public Booking getItemsNextBooking(List<Booking> bookings) {
+    private static <T extends BookingPeriod> T nextBooking(List<T> bookings) {
         LocalDateTime now = LocalDateTime.now();
         return bookings.stream()
                 .filter(b -> b.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart))
+                .min(Comparator.comparing(BookingPeriod::getStart))
                 .orElse(null);
     }
+
+    private static PairOfDate toPairOfDate(BookingPeriod booking) {
+        return booking == null ? null : new PairOfDate(booking.getStart(), booking.getEnd());
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.RequestDto;
@@ -25,24 +26,26 @@ public class ItemRequestController {
     //Основная часть запроса — текст запроса, в котором пользователь описывает, какая именно вещь ему нужна.
     public ResponseEntity<RequestDto> addNewRequest(@RequestHeader("X-Sharer-User-Id") Long id,
                                                     @RequestBody RequestDto requestDto) {
-        log.info("\nServer: Получен запрос на поиск item {}", requestDto);
+        log.info("Server: Получен запрос на поиск item от user={}", id);
         return ResponseEntity.ok(requestService.addNewRequest(id, requestDto));
     }
 
     @GetMapping
     //GET /requests — получить список своих запросов вместе с данными об ответах на них.
-    public ResponseEntity<List<RequestDto>> getUsersRequests(@RequestHeader("X-Sharer-User-Id") Long id) {
-        log.info("\nServer: Получен запрос пользователя {} на поиск его запросов", id);
-        return ResponseEntity.ok(requestService.getUsersRequests(id));
+    public ResponseEntity<List<RequestDto>> getUsersRequests(@RequestHeader("X-Sharer-User-Id") Long id,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Server: Получен запрос пользователя {} на поиск его запросов", id);
+        return requestService.getTaggedUsersRequests(id).toResponse(ifNoneMatch);
     }
 
     @GetMapping("/all")
     //GET /requests/all — получить список запросов, созданных другими пользователями.
     //С помощью этого эндпоинта пользователи смогут просматривать существующие запросы, на которые они
     //могли бы ответить. Запросы сортируются по дате создания от более новых к более старым.
-    public ResponseEntity<List<RequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long id) {
-        log.info("\nServer: Получен запрос пользователя {} на поиск чужих запросов", id);
-        return ResponseEntity.ok(requestService.getAllAnotherUsersRequests(id));
+    public ResponseEntity<List<RequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Server: Получен запрос пользователя {} на поиск чужих запросов", id);
+        return requestService.getTaggedAnotherUsersRequests(id).toResponse(ifNoneMatch);
     }
 
     @GetMapping("/{requestId}")
@@ -50,8 +53,9 @@ public class ItemRequestController {
     // в том же формате, что и в эндпоинте GET /requests. Посмотреть данные об отдельном запросе может
     // любой пользователь
     public ResponseEntity<RequestDto> getRequestById(@RequestHeader("X-Sharer-User-Id") Long id,
-                                                     @PathVariable(name = "requestId") Long requestId) {
-        log.info("\nServer: Получен запрос пользователя {} на просмотр запроса {}", id, requestId);
-        return ResponseEntity.ok(requestService.getRequestById(id, requestId));
+                                                     @PathVariable(name = "requestId") Long requestId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Server: Получен запрос пользователя {} на просмотр запроса {}", id, requestId);
+        return requestService.getTaggedRequestById(id, requestId).toResponse(ifNoneMatch);
     }
 }
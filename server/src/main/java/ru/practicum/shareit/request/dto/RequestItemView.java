@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+//Проекция вещи, созданной в ответ на запрос: поля ShortItemDto, id запроса и версия для ETag
+public interface RequestItemView {
+
+    Long getId();
+
+    String getName();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    long getVersion();
+}
@@ -3,9 +3,11 @@ package ru.practicum.shareit.request.dto;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import ru.practicum.shareit.item.dto.items.ItemMapper;
+import ru.practicum.shareit.item.dto.items.ShortItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
@@ -18,6 +20,20 @@ public class RequestMapper {
                 .build();
     }
 
+    //Запрос вещи из строки проекции (LEFT JOIN: у вещи может не быть запроса)
+    public static ItemRequest mapProjectionToItemRequest(Long id, String description, LocalDateTime created,
+                                                         Long requestorId, String requestorName,
+                                                         String requestorEmail) {
+        if (id == null)
+            return null;
+        return ItemRequest.builder()
+                .id(id)
+                .description(description)
+                .created(created)
+                .requestor(new User(requestorId, requestorName, requestorEmail, 0))
+                .build();
+    }
+
     public static RequestDto mapItemRequestToRequestDto(ItemRequest request) {
         return RequestDto.builder()
                 .id(request.getId())
@@ -29,6 +45,22 @@ public class RequestMapper {
                 .build();
     }
 
+    public static RequestDto mapViewToRequestDto(RequestView request, List<RequestItemView> items) {
+        return RequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requestor(request.getRequestorId())
+                .created(request.getCreated())
+                .items(CollectionUtils.isEmpty(items) ? null : items.stream()
+                        .map(item -> ShortItemDto.builder()
+                                .itemId(item.getId())
+                                .name(item.getName())
+                                .ownerId(item.getOwnerId())
+                                .build())
+                        .toList())
+                .build();
+    }
+
     public static List<RequestDto> mapItemRequestListToRequestDtoList(List<ItemRequest> requests) {
         return requests.stream()
                 .map(RequestMapper::mapItemRequestToRequestDto)
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+//Проекция запроса для списков: поля ответа и версия для ETag
+public interface RequestView {
+
+    Long getId();
+
+    String getDescription();
+
+    Long getRequestorId();
+
+    LocalDateTime getCreated();
+
+    long getVersion();
+}
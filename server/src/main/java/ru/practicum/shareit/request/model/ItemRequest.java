@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import ru.practicum.shareit.item.model.Item;
@@ -13,6 +15,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "requests")
+//Служебные поля прокси Hibernate не сериализуются
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @ToString
@@ -23,7 +27,8 @@ public class ItemRequest {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id; // уникальный идентификатор запроса;
 
     @Column(name = "description")
@@ -31,11 +36,19 @@ public class ItemRequest {
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "requestor_id")
+    @ToString.Exclude
     private User requestor; // пользователь, создавший запрос;
 
     @Column(name = "created")
     private LocalDateTime created; // дата и время создания запроса
 
+    //Версия меняется при каждом изменении и входит в ETag. Примитив - чтобы ссылки вида ItemRequest.builder().id(id)
+    //по-прежнему считались существующими сущностями, а не новыми
+    @Version
+    @JsonIgnore
+    @Column(name = "version")
+    private long version;
+
     @Transient
     private List<Item> items;
 
@@ -1,16 +1,28 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequestorOrderByCreatedDesc(User requestor);
+    //Списки запросов только для чтения: выбираются только поля ответа, без загрузки сущностей
+    String VIEW = "SELECT r.id AS id, r.description AS description, r.requestor.id AS requestorId, " +
+            "r.created AS created, r.version AS version FROM ItemRequest r ";
 
-    List<ItemRequest> findByRequestorNotOrderByCreatedDesc(User requestor);
+    @Query(VIEW + "WHERE r.requestor.id = :requestorId ORDER BY r.created DESC")
+    List<RequestView> findByRequestorIdOrderByCreatedDesc(Long requestorId);
+
+    @Query(VIEW + "WHERE r.requestor.id <> :requestorId ORDER BY r.created DESC")
+    List<RequestView> findByRequestorIdNotOrderByCreatedDesc(Long requestorId);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
 }
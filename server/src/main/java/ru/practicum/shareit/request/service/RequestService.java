@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -11,9 +12,15 @@ public interface RequestService {
 
     List<RequestDto> getUsersRequests(long id);
 
+    Tagged<List<RequestDto>> getTaggedUsersRequests(long id);
+
     List<RequestDto> getAllAnotherUsersRequests(long id);
 
+    Tagged<List<RequestDto>> getTaggedAnotherUsersRequests(long id);
+
     RequestDto getRequestById(long id, long requestId);
 
+    Tagged<RequestDto> getTaggedRequestById(long id, long requestId);
+
     ItemRequest getRequest(Long id);
 }
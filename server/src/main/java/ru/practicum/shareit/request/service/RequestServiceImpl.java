@@ -3,21 +3,22 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestItemView;
 import ru.practicum.shareit.request.dto.RequestMapper;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +33,7 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     public RequestDto addNewRequest(long id, RequestDto requestDto) {
+        userService.checkUserExists(id);
         requestDto.setRequestor(id);
         ItemRequest itemRequest = RequestMapper.mapRequestDtoToItemRequest(requestDto);
         itemRequest.setCreated(LocalDateTime.now());
@@ -44,19 +46,25 @@ public class RequestServiceImpl implements RequestService {
     // можно будет получить подробную информацию о каждой из них. Запросы должны возвращаться отсортированными от
     // более новых к более старым.
     public List<RequestDto> getUsersRequests(long id) {
-        User requestor = userService.getUser(id); //получаем данные пользователя для запроса, проверяя существование
-        //Получаем список запросов, заодно его сортируем
-        List<ItemRequest> requestsList = repository.findByRequestorOrderByCreatedDesc(requestor);
+        return getTaggedUsersRequests(id).body();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<List<RequestDto>> getTaggedUsersRequests(long id) {
+        userService.checkUserExists(id);
+        //Получаем список запросов, заодно его сортируем. Запросы и вещи читаются проекциями, без сущностей
+        List<RequestView> requestsList = repository.findByRequestorIdOrderByCreatedDesc(id);
         if (CollectionUtils.isEmpty(requestsList))
-            return List.of();
-        Map<Long, ItemRequest> requests = requestsList.stream()
-                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
-        Map<Long, List<Item>> items = itemRepository.findAllByRequestIn(requestsList).stream()
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
-        for (ItemRequest req : requestsList) {
-            req.setItems(items.getOrDefault(req.getId(), null));
-        }
-        return RequestMapper.mapItemRequestListToRequestDtoList(requestsList);
+            return Tagged.of(List::of);
+        Map<Long, List<RequestItemView>> items = itemRepository.findRequestItemViews(requestsList.stream()
+                        .map(RequestView::getId)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(RequestItemView::getRequestId));
+        return Tagged.of(() -> requestsList.stream()
+                        .map(req -> RequestMapper.mapViewToRequestDto(req, items.get(req.getId())))
+                        .toList(),
+                viewsState(requestsList, items));
     }
 
     @Override
@@ -64,17 +72,49 @@ public class RequestServiceImpl implements RequestService {
     //С помощью этого эндпоинта пользователи смогут просматривать существующие запросы, на которые они
     //могли бы ответить. Запросы сортируются по дате создания от более новых к более старым.
     public List<RequestDto> getAllAnotherUsersRequests(long id) {
-        User requestor = userService.getUser(id); //получаем данные пользователя для запроса, проверяя существование
-        List<ItemRequest> requests = repository.findByRequestorNotOrderByCreatedDesc(requestor);
-        return RequestMapper.mapItemRequestListToRequestDtoList(requests);
+        return getTaggedAnotherUsersRequests(id).body();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<List<RequestDto>> getTaggedAnotherUsersRequests(long id) {
+        userService.checkUserExists(id);
+        List<RequestView> requests = repository.findByRequestorIdNotOrderByCreatedDesc(id);
+        return Tagged.of(() -> requests.stream()
+                        .map(req -> RequestMapper.mapViewToRequestDto(req, null))
+                        .toList(),
+                viewsState(requests, Map.of()));
     }
 
     @Override
     public RequestDto getRequestById(long id, long requestId) {
-        User user = userService.getUser(id);
+        return getTaggedRequestById(id, requestId).body();
+    }
+
+    @Override
+    public Tagged<RequestDto> getTaggedRequestById(long id, long requestId) {
+        userService.checkUserExists(id);
         ItemRequest itemRequest = getRequest(requestId);
         itemRequest.setItems(itemRepository.findAllByRequestIn(List.of(itemRequest)));
-        return RequestMapper.mapItemRequestToRequestDto(itemRequest);
+        return Tagged.of(() -> RequestMapper.mapItemRequestToRequestDto(itemRequest), requestState(itemRequest));
+    }
+
+    //Для ETag: запрос и версии вещей, созданных в ответ на него (их названия входят в ответ)
+    private static List<Object> requestState(ItemRequest request) {
+        List<List<Long>> itemsState = request.getItems() == null ? List.of() : request.getItems().stream()
+                .map(item -> List.of(item.getId(), item.getVersion()))
+                .toList();
+        return List.of(request.getId(), request.getVersion(), itemsState);
+    }
+
+    private static List<List<Object>> viewsState(List<RequestView> requests,
+                                                 Map<Long, List<RequestItemView>> items) {
+        return requests.stream()
+                .map(request -> List.<Object>of(request.getId(), request.getVersion(),
+                        items.getOrDefault(request.getId(), List.of()).stream()
+                                .map(item -> List.of(item.getId(), item.getVersion()))
+                                .toList()))
+                .toList();
     }
 
     @Override
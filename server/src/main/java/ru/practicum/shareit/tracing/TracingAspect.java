@@ -0,0 +1,68 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Proxy;
+
+//Вложенные span этапов обработки запроса: контроллер, сервис, репозиторий, маппер.
+//Внешний по отношению к транзакции, поэтому в span сервиса входит и фиксация транзакции.
+//Статические методы мапперов и вызовы внутри одного бина через прокси не проходят и отдельных span не дают
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingAspect {
+
+    private final SpanExporter exporter;
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository");
+    }
+
+    @Around("execution(* ru.practicum.shareit..*Mapper+.*(..))")
+    public Object mapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "mapper");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String stage) throws Throwable {
+        Span parent = Span.current();
+        if (parent == null || !parent.isSampled())
+            return joinPoint.proceed();
+        Span span = parent.child(componentName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName())
+                .tag("stage", stage);
+        Span previous = Span.activate(span);
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.tag("error", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            Span.restore(previous);
+            exporter.export(span.finish());
+        }
+    }
+
+    //Для репозиториев Spring Data целевой объект - JDK-прокси, имя берется у интерфейса репозитория
+    private static String componentName(Object target) {
+        Class<?> type = Proxy.isProxyClass(target.getClass())
+                ? target.getClass().getInterfaces()[0]
+                : AopUtils.getTargetClass(target);
+        return type.getSimpleName();
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * TODO Sprint add-controllers.
@@ -9,6 +13,9 @@ import lombok.*;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+//Служебные поля прокси Hibernate не сериализуются
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @ToString
@@ -18,7 +25,8 @@ public class User {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id; // уникальный идентификатор пользователя;
 
     @Column(name = "name")
@@ -27,6 +35,13 @@ public class User {
     @Column(name = "email")
     private String email; // адрес электронной почты
 
+    //Версия меняется при каждом изменении и входит в ETag. Примитив - чтобы ссылки вида new User(id)
+    //по-прежнему считались существующими сущностями, а не новыми
+    @Version
+    @JsonIgnore
+    @Column(name = "version")
+    private long version;
+
     public User(Long id) {
         this.id = id;
     }
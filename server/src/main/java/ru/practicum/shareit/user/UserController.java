@@ -2,8 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -22,42 +25,51 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<UserDto> createUser(@RequestBody UserDto userDto) {
-        log.info("\nПолучен запрос на создание user {}", userDto);
+        log.info("Получен запрос на создание user");
         UserDto createdUser = userService.createUser(userDto);
-        log.info("\nUser {} was created", createdUser);
+        log.debug("User id={} was created", createdUser.getId());
         return ResponseEntity.ok(createdUser);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult<UserDto>>> createUsers(@RequestBody List<UserDto> userDtos) {
+        log.info("Получен запрос на создание {} user", userDtos.size());
+        List<BatchResult<UserDto>> results = userService.createUsers(userDtos);
+        log.debug("Обработан пакет из {} user", results.size());
+        return ResponseEntity.ok(results);
+    }
+
     @PatchMapping("/{userId}")
     public ResponseEntity<UserDto> updateUser(@PathVariable(name = "userId") Long id, @RequestBody UserDto userDto) {
-        log.info("\nПолучен запрос на изменение данных {} user {}", userDto, id);
+        log.info("Получен запрос на изменение данных user={}", id);
         userDto.setId(id);
         UserDto updatedUser = userService.updateUser(userDto);
-        log.info("\nUser after updating {}", updatedUser);
+        log.debug("User id={} was updated", updatedUser.getId());
         return ResponseEntity.ok(updatedUser);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<UserDto> deleteUser(@PathVariable Long id) {
-        log.info("\nПолучен запрос на удаление данных user {}", id);
+        log.info("Получен запрос на удаление данных user {}", id);
         UserDto deletedUser = userService.deleteUser(id);
-        log.info("\nWas deleted {}", deletedUser);
+        log.debug("Was deleted user id={}", deletedUser.getId());
         return ResponseEntity.ok(deletedUser);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable(name = "id") Long id) {
-        log.info("\nПолучен запрос получение данных user {}", id);
-        UserDto receivedUser = userService.getUserById(id);
-        log.info("\nWas received {}", receivedUser);
-        return ResponseEntity.ok(receivedUser);
+    public ResponseEntity<UserDto> getUserById(@PathVariable(name = "id") Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Получен запрос получение данных user {}", id);
+        Tagged<UserDto> receivedUser = userService.getTaggedUserById(id);
+        log.debug("Was received user id={} ETag={}", id, receivedUser.etag());
+        return receivedUser.toResponse(ifNoneMatch);
     }
 
     @GetMapping
     public ResponseEntity<List<UserDto>> getAllUsers() {
-        log.info("\nПолучен запрос получение всех user");
+        log.info("Получен запрос получение всех user");
         List<UserDto> users = userService.getAllUsers();
-        log.info("\nПолучен список из {} персон", users.size());
+        log.debug("Получен список из {} персон", users.size());
         return ResponseEntity.ok(users);
     }
 }
@@ -1,8 +1,16 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    //Адреса из списка, уже занятые другими пользователями
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findUsedEmails(Collection<String> emails);
 }
\ No newline at end of file
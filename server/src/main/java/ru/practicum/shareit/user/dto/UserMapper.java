@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import ru.practicum.shareit.user.User;
 
@@ -9,6 +10,8 @@ import java.util.List;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface UserMapper {
 
+    //Версию для оптимистичной блокировки назначает JPA, в DTO ее нет
+    @Mapping(target = "version", ignore = true)
     User mapUserDtoToUser(UserDto userDto);
 
     UserDto mapUserToDto(User user);
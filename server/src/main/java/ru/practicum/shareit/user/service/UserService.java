@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -9,13 +11,21 @@ public interface UserService {
 
     UserDto createUser(UserDto userDto);
 
+    //Создание пакета пользователей в одной транзакции, результат - по каждому элементу
+    List<BatchResult<UserDto>> createUsers(List<UserDto> userDtos);
+
     UserDto updateUser(UserDto userDto);
 
     UserDto deleteUser(Long id);
 
     UserDto getUserById(Long id);
 
+    Tagged<UserDto> getTaggedUserById(Long id);
+
     List<UserDto> getAllUsers();
 
     User getUser(Long id);
+
+    //Проверка существования без загрузки пользователя
+    void checkUserExists(Long id);
 }
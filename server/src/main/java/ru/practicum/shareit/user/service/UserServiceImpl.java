@@ -1,17 +1,27 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.auxiliary.SingleFlight;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,16 +29,47 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final UserRepository repository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SingleFlight singleFlight;
 
     @Override
     public UserDto createUser(UserDto userDto) {
         try {
-            return userMapper.mapUserToDto(repository.save(userMapper.mapUserDtoToUser(userDto)));
+            //INSERT выполняется сразу, чтобы занятый e-mail был обнаружен здесь, а не при фиксации транзакции
+            return userMapper.mapUserToDto(repository.saveAndFlush(userMapper.mapUserDtoToUser(userDto)));
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateDataException("Users e-mail already exists in base", userDto);
         }
     }
 
+    @Override
+    @Transactional
+    public List<BatchResult<UserDto>> createUsers(List<UserDto> userDtos) {
+        //Занятые адреса проверяются одним запросом, повторы внутри пакета - по уже принятым элементам
+        Set<String> usedEmails = new HashSet<>(repository.findUsedEmails(userDtos.stream()
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .toList()));
+        List<BatchResult<UserDto>> results = new ArrayList<>(userDtos.size());
+        List<User> accepted = new ArrayList<>();
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            if (!usedEmails.add(userDto.getEmail())) {
+                results.add(BatchResult.failed(i,
+                        new DuplicateDataException("Users e-mail already exists in base", userDto)));
+                continue;
+            }
+            accepted.add(userMapper.mapUserDtoToUser(userDto));
+            results.add(null);
+        }
+        try {
+            return BatchResult.withSaved(results, repository.saveAllAndFlush(accepted), userMapper::mapUserToDto);
+        } catch (DataIntegrityViolationException e) {
+            //Адрес заняли параллельным запросом после проверки
+            throw new DuplicateDataException("Users e-mail already exists in base", userDtos);
+        }
+    }
+
     @Override
     public UserDto updateUser(UserDto userDto) {
         User oldUser = getUser(userDto.getId());
@@ -37,7 +78,10 @@ public class UserServiceImpl implements UserService {
         if (!Strings.isBlank(userDto.getEmail()))
             oldUser.setEmail(userDto.getEmail());
         try {
-            return userMapper.mapUserToDto(repository.save(oldUser));
+            UserDto updated = userMapper.mapUserToDto(repository.save(oldUser));
+            //Имя пользователя входит в комментарии в ответе GET /items/{id}
+            singleFlight.forgetAll("item");
+            return updated;
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateDataException("This e-mail already exists in base", userDto);
         }
@@ -47,13 +91,20 @@ public class UserServiceImpl implements UserService {
     public UserDto deleteUser(Long id) {
         User oldUser = getUser(id);
         repository.deleteById(id);
+        //Вещи пользователя удаляются каскадно средствами БД, Hibernate об этом не знает - сбрасываем их кэш
+        entityManagerFactory.getCache().evict(Item.class);
         return userMapper.mapUserToDto(oldUser);
     }
 
     @Override
     public UserDto getUserById(Long id) {
+        return getTaggedUserById(id).body();
+    }
+
+    @Override
+    public Tagged<UserDto> getTaggedUserById(Long id) {
         User user = getUser(id);
-        return userMapper.mapUserToDto(user);
+        return Tagged.of(() -> userMapper.mapUserToDto(user), user.getId(), user.getVersion());
     }
 
     @Override
@@ -65,4 +116,14 @@ public class UserServiceImpl implements UserService {
         return repository.findById(usersId)
                 .orElseThrow(() -> new NotFoundException("User not found", usersId));
     }
+
+    @Override
+    public void checkUserExists(Long usersId) {
+        //Пользователь из кэша второго уровня существует без запроса; existsById - это count в обход кэша.
+        //При выключенном кэше contains всегда возвращает false
+        if (entityManagerFactory.getCache().contains(User.class, usersId))
+            return;
+        if (!repository.existsById(usersId))
+            throw new NotFoundException("User not found", usersId);
+    }
 }
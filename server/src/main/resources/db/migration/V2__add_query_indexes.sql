@@ -0,0 +1,17 @@
+-- Индексы под запросы BookingRepository: бронирования пользователя (в т.ч. keyset-пагинация по start, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+-- Бронирования вещи по статусу, последнее/следующее бронирование вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- Вещи собственника (ItemRepository.findAllByOwner, бронирования собственника через join)
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+-- Вещи, созданные по запросам (ItemRepository.findAllByRequestIn)
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- Комментарии к вещи (CommentRepository.findAllByItem)
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+-- Запросы пользователя, отсортированные по дате создания (RequestRepository)
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
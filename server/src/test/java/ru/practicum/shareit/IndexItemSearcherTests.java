@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//Перестроение индекса: поиск во время него идет по прежнему индексу, изменения вещей не теряются
+public class IndexItemSearcherTests {
+
+    private final ItemRepository repository = mock(ItemRepository.class);
+
+    private final IndexItemSearcher searcher = new IndexItemSearcher(repository);
+
+    //Состояние таблицы items для findAllById
+    private final Map<Long, Item> table = new ConcurrentHashMap<>();
+
+    private static Item item(long id, String name, boolean available) {
+        return Item.builder().id(id).name(name).description("").available(available).build();
+    }
+
+    private List<Long> search(String text) {
+        return searcher.search(text, 0, 10).stream().map(Item::getId).toList();
+    }
+
+    @SneakyThrows
+    @Test
+    public void rebuild_shouldKeepServingOldIndexAndApplyConcurrentChanges() {
+        Item drill = item(1L, "Drill", true);
+        table.put(1L, drill);
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(table::get).filter(Objects::nonNull).toList();
+        });
+        when(repository.findAllByAvailableTrue(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(drill)));
+        searcher.afterSingletonsInstantiated();
+        assertEquals(List.of(1L), search("drill"));
+
+        //Страница перестроения прочитана из БД до изменений, а применяется после них
+        CountDownLatch pageRead = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        when(repository.findAllByAvailableTrue(any(Pageable.class))).thenAnswer(invocation -> {
+            pageRead.countDown();
+            changed.await();
+            return new SliceImpl<>(List.of(item(1L, "Drill", true)));
+        });
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> rebuild = executor.submit(searcher::rebuild);
+            pageRead.await();
+
+            assertEquals(List.of(1L), search("drill"));
+            Item saw = item(2L, "Saw", true);
+            table.put(2L, saw);
+            searcher.itemSaved(saw);
+            Item unavailableDrill = item(1L, "Drill", false);
+            table.put(1L, unavailableDrill);
+            searcher.itemSaved(unavailableDrill);
+            changed.countDown();
+            rebuild.get();
+        }
+
+        assertEquals(List.of(), search("drill"));
+        assertEquals(List.of(2L), search("saw"));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.calendar.BookingPeriod;
+import ru.practicum.shareit.booking.calendar.ItemCalendar;
+import ru.practicum.shareit.item.dto.availability.BusyPeriodDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemCalendarTests {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingPeriod period(long id, int startHour, int endHour) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return base.plusHours(startHour);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return base.plusHours(endHour);
+            }
+        };
+    }
+
+    private List<Long> busyIds(ItemCalendar calendar, int fromHour, int toHour) {
+        return calendar.getBusyPeriods(base.plusHours(fromHour), base.plusHours(toHour)).stream()
+                .map(BusyPeriodDto::getBookingId)
+                .toList();
+    }
+
+    @Test
+    public void isFree_shouldTreatPeriodsAsHalfOpen() {
+        ItemCalendar calendar = ItemCalendar.of(List.of(period(2L, 10, 12), period(1L, 2, 4), period(3L, 20, 21)));
+
+        assertTrue(calendar.isFree(base, base.plusHours(2)));
+        assertFalse(calendar.isFree(base.plusHours(3), base.plusHours(5)));
+        assertTrue(calendar.isFree(base.plusHours(4), base.plusHours(10)));
+        assertFalse(calendar.isFree(base.plusHours(11), base.plusHours(30)));
+        assertTrue(calendar.isFree(base.plusHours(21), base.plusHours(30)));
+        assertEquals(List.of(2L, 3L), busyIds(calendar, 11, 30));
+    }
+
+    @Test
+    public void with_shouldAddOrMovePeriodAndWithoutShouldRemove() {
+        ItemCalendar calendar = ItemCalendar.of(List.of(period(1L, 2, 4), period(2L, 10, 12)));
+
+        ItemCalendar added = calendar.with(3L, base.plusHours(5), base.plusHours(6));
+        assertEquals(List.of(1L, 3L, 2L), busyIds(added, 0, 24));
+        //исходный календарь не меняется
+        assertEquals(2, calendar.size());
+
+        ItemCalendar moved = added.with(1L, base.plusHours(14), base.plusHours(15));
+        assertEquals(List.of(3L, 2L, 1L), busyIds(moved, 0, 24));
+        assertTrue(moved.isFree(base.plusHours(2), base.plusHours(4)));
+
+        ItemCalendar removed = moved.without(2L).without(100L);
+        assertEquals(List.of(3L, 1L), busyIds(removed, 0, 24));
+        assertEquals(0, removed.without(1L).without(3L).size());
+    }
+
+    @Test
+    public void isFree_whenLegacyPeriodsOverlap_thenStillFindsLongPeriod() {
+        //Долгое бронирование, начавшееся раньше коротких, не должно теряться при поиске
+        ItemCalendar calendar = ItemCalendar.of(List.of(period(1L, 0, 100), period(2L, 1, 2), period(3L, 3, 4)));
+
+        assertFalse(calendar.isFree(base.plusHours(50), base.plusHours(60)));
+        assertEquals(List.of(1L), busyIds(calendar, 50, 60));
+    }
+}
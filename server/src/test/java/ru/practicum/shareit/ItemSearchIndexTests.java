@@ -0,0 +1,52 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemSearchIndexTests {
+
+    private ItemSearchIndex filledIndex() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.put(1L, "First item", "Without description");
+        index.put(2L, "Second item", "To long description");
+        index.put(3L, "Drill", "Second item for drilling");
+        return index;
+    }
+
+    @Test
+    public void search_shouldMatchSubstringsAndRankNameMatchesFirst() {
+        ItemSearchIndex index = filledIndex();
+        assertEquals(List.of(2L, 3L), index.search("SECOND", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("descr", 0, 10));
+        //запрос короче триграммы проверяется перебором
+        assertEquals(List.of(1L), index.search("ir", 0, 10));
+        assertEquals(List.of(3L), index.search("LL", 0, 10));
+        //пробел между названием и описанием тоже участвует в поиске, как в БД
+        assertEquals(List.of(3L), index.search("drill second", 0, 10));
+        assertEquals(List.of(), index.search("hammer", 0, 10));
+    }
+
+    @Test
+    public void search_shouldPaginate() {
+        ItemSearchIndex index = filledIndex();
+        assertEquals(List.of(1L, 2L, 3L), index.search("item", 0, 10));
+        assertEquals(List.of(2L), index.search("item", 1, 1));
+        assertEquals(List.of(), index.search("item", 5, 1));
+    }
+
+    @Test
+    public void put_shouldReplaceOldTextAndRemoveShouldDropItem() {
+        ItemSearchIndex index = filledIndex();
+        index.put(3L, "Hammer", "Heavy");
+        assertEquals(List.of(2L), index.search("second", 0, 10));
+        assertEquals(List.of(3L), index.search("hammer", 0, 10));
+
+        index.remove(2L);
+        assertEquals(List.of(), index.search("second", 0, 10));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Проверка того, что миграции создают индексы под запросы репозиториев. Таблицы заполняются так, чтобы
+//оптимизатор H2 выбирал индекс по стоимости; SQL запроса перехватывается через INFORMATION_SCHEMA.QUERY_STATISTICS
+//при вызове метода репозитория, и для него строится EXPLAIN.
+//H2 сам создает индексы для внешних ключей, поэтому для comments.item_id и requests.requestor_id он выбирает
+//равноценный индекс ограничения (сортировку по created H2 при выборе индекса не учитывает). Для них проверяется
+//поиск по индексу, а состав индексов миграции - по INFORMATION_SCHEMA.INDEX_COLUMNS.
+//Планы PostgreSQL (в нем индексы для внешних ключей не создаются) этими тестами не проверяются
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql("/clean.sql")
+@ActiveProfiles("test")
+public class SchemaIndexTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 1, 0, 0);
+
+    private static final long USER = 1001L;
+
+    private static final long ITEM = 1001L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final RequestRepository requestRepository;
+
+    //200 пользователей, 2000 запросов, 5000 вещей, 50000 бронирований и 20000 комментариев
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.execute("INSERT INTO users (id, name, email) " +
+                "SELECT x, 'user' || x, 'user' || x || '@nowhere.net' FROM " + range(1000, 1199));
+        jdbcTemplate.execute("INSERT INTO requests (id, description, requestor_id, created) " +
+                "SELECT x, 'request', 1000 + MOD(x, 200), TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE " +
+                "FROM " + range(1000, 2999));
+        jdbcTemplate.execute("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "SELECT x, 'item', 'description', TRUE, 1000 + MOD(x, 200), " +
+                "CASE WHEN MOD(x, 2) = 0 THEN 1000 + MOD(x, 2000) END FROM " + range(1000, 5999));
+        jdbcTemplate.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT x, TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE, " +
+                "TIMESTAMP '2020-01-01 01:00:00' + x * INTERVAL '1' MINUTE, 1000 + MOD(x, 5000), 1000 + MOD(x, 200), " +
+                "CASE MOD(x, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END " +
+                "FROM " + range(1000, 50999));
+        jdbcTemplate.execute("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT x, 'comment', 1000 + MOD(x, 5000), 1000 + MOD(x, 200), TIMESTAMP '2020-01-01 00:00:00' " +
+                "FROM " + range(1000, 20999));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static String range(int from, int to) {
+        return "(SELECT \"X\" AS x FROM SYSTEM_RANGE(" + from + ", " + to + ")) r";
+    }
+
+    @Test
+    public void migrationsShouldBeApplied() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" ORDER BY \"installed_rank\"",
+                String.class);
+        assertTrue(versions.containsAll(List.of("1", "2", "4", "6", "7", "8")));
+    }
+
+    @Test
+    public void usersBookingsAfterCursorShouldUseBookerStartIndex() {
+        String plan = explain("from bookings", () -> bookingRepository.findFutureUsersBookingsAfter(USER, NOW,
+                NOW.plusDays(10), 5L, PageRequest.of(0, 10)));
+        assertIndexCovers(plan, "idx_bookings_booker_start", "booker_id", "start_date");
+    }
+
+    @Test
+    public void itemsCalendarShouldUseItemStatusStartIndex() {
+        String plan = explain("from bookings", () ->
+                bookingRepository.findAllByItemIdAndStatusAndEndAfter(ITEM, BookStatus.APPROVED, NOW));
+        assertIndexCovers(plan, "idx_bookings_item_status_start", "item_id", "status");
+    }
+
+    @Test
+    public void overlappingBookingsCheckShouldUseItemStatusStartIndex() {
+        String plan = explain("from bookings", () -> bookingRepository.hasOverlappingBookings(ITEM,
+                BookStatus.APPROVED, NOW, NOW.plusDays(1), 0L));
+        assertIndexCovers(plan, "idx_bookings_item_status_start", "item_id", "status", "start_date");
+    }
+
+    @Test
+    public void ownersItemsShouldUseOwnerIndex() {
+        String plan = explain("from items", () -> itemRepository.findOutputDtosByOwnerId(USER));
+        assertIndexCovers(plan, "idx_items_owner", "owner_id");
+    }
+
+    @Test
+    public void requestsItemsShouldUseRequestIndex() {
+        String plan = explain("from items", () -> itemRepository.findRequestItemViews(List.of(1001L, 1002L)));
+        assertIndexCovers(plan, "idx_items_request", "request_id");
+    }
+
+    @Test
+    public void itemsCommentsShouldBeFoundByItemIndex() {
+        Item item = itemRepository.findById(ITEM).orElseThrow();
+        String plan = explain("from comments", () -> commentRepository.findAllByItem(item));
+        assertIndexLookup(plan, "item_id");
+        assertIndexColumns("idx_comments_item", "item_id");
+    }
+
+    @Test
+    public void usersRequestsShouldBeFoundByRequestorIndex() {
+        String plan = explain("from requests", () -> requestRepository.findByRequestorIdOrderByCreatedDesc(USER));
+        assertIndexLookup(plan, "requestor_id");
+        assertIndexColumns("idx_requests_requestor_created", "requestor_id", "created");
+    }
+
+    @Test
+    public void bookingIndexesShouldHaveExpectedColumns() {
+        assertIndexColumns("idx_bookings_booker_start", "booker_id", "start_date", "id");
+        assertIndexColumns("idx_bookings_item_status_start", "item_id", "status", "start_date");
+        assertIndexColumns("idx_items_owner", "owner_id");
+        assertIndexColumns("idx_items_request", "request_id");
+    }
+
+    //Вызов репозитория с записью выполненных запросов; EXPLAIN строится для запроса к нужной таблице
+    private String explain(String from, Runnable call) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        List<String> statements;
+        try {
+            call.run();
+            statements = jdbcTemplate.queryForList(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+        String sql = statements.stream()
+                .filter(statement -> statement.startsWith("select") && statement.contains(from + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query " + from + " among " + statements));
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    //В плане H2 используемый индекс и покрытые им условия выводятся комментарием /* PUBLIC.index: ... */
+    private void assertIndexCovers(String plan, String index, String... columns) {
+        int start = plan.indexOf("/* PUBLIC." + index + ":");
+        assertTrue(start >= 0, "Index " + index + " is not used in plan: " + plan);
+        String indexCondition = plan.substring(start, plan.indexOf("*/", start));
+        for (String column : columns) {
+            assertTrue(indexCondition.contains(column), "Index " + index + " doesn't cover " + column + ": " + plan);
+        }
+    }
+
+    //Первая таблица плана читается по индексу с условием на column, а не полным просмотром
+    private void assertIndexLookup(String plan, String column) {
+        int start = plan.indexOf("/* PUBLIC.");
+        assertTrue(start >= 0, "No index in plan: " + plan);
+        String indexCondition = plan.substring(start, plan.indexOf("*/", start));
+        assertTrue(indexCondition.contains(column + " = "), "Table is not searched by " + column + ": " + plan);
+    }
+
+    private void assertIndexColumns(String index, String... columns) {
+        assertEquals(List.of(columns), jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, index));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"management.endpoints.web.exposure.include=prometheus",
+        "shareit.service-metrics.slo[UserServiceImpl.getAllUsers]=10s"})
+public class ServiceMetricsTests {
+
+    private final MockMvc mvc;
+
+    private final MeterRegistry meterRegistry;
+
+    private final UserService userService;
+
+    @Test
+    public void serviceMethod_shouldBeTimedWithPercentilesAndSlo() {
+        long calls = timerCount("getAllUsers", "none");
+
+        userService.getAllUsers();
+
+        Timer timer = meterRegistry.get("shareit.service")
+                .tags("class", "UserServiceImpl", "method", "getAllUsers", "exception", "none").timer();
+        assertEquals(calls + 1, timer.count());
+        assertEquals(3, timer.takeSnapshot().percentileValues().length);
+        assertEquals(calls + 1, meterRegistry.get("shareit.service.slo")
+                .tags("class", "UserServiceImpl", "method", "getAllUsers", "le", "10.0").counter().count());
+    }
+
+    @Test
+    public void failedServiceMethod_shouldBeTaggedWithException() {
+        long failures = timerCount("getUserById", "NotFoundException");
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(999L));
+
+        assertEquals(failures + 1, timerCount("getUserById", "NotFoundException"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void prometheusEndpoint_shouldExposeServiceAndPoolMetrics() {
+        userService.getAllUsers();
+
+        String body = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("# TYPE shareit_service_seconds summary"));
+        assertTrue(body.contains("shareit_service_seconds{class=\"UserServiceImpl\",exception=\"none\","
+                + "method=\"getAllUsers\",quantile=\"0.99\"}"));
+        assertTrue(body.contains("shareit_service_seconds_count{class=\"UserServiceImpl\",exception=\"none\","
+                + "method=\"getAllUsers\"}"));
+        assertTrue(body.contains("shareit_service_slo_total{class=\"UserServiceImpl\",le=\"10.0\","
+                + "method=\"getAllUsers\"}"));
+        assertTrue(body.contains("# TYPE hikaricp_connections_active gauge"));
+    }
+
+    private long timerCount(String method, String exception) {
+        Timer timer = meterRegistry.find("shareit.service")
+                .tags("class", "UserServiceImpl", "method", method, "exception", exception).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
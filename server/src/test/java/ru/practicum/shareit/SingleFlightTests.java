@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.auxiliary.SingleFlight;
+import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTests {
+
+    private static final int THREADS = 16;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+
+    private double count(String metric) {
+        return meterRegistry.counter(metric, "name", "item").count();
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        latch.await();
+    }
+
+    //Первый вызов держит загрузку, пока остальные не присоединятся к нему
+    @SneakyThrows
+    private <V> List<Future<V>> runConcurrently(ExecutorService executor, CountDownLatch release,
+                                                Callable<V> call) {
+        List<Future<V>> results = new ArrayList<>();
+        results.add(executor.submit(call));
+        while (count("shareit.singleflight.calls") < 1)
+            Thread.sleep(5);
+        for (int i = 1; i < THREADS; i++)
+            results.add(executor.submit(call));
+        while (count("shareit.singleflight.coalesced") < THREADS - 1)
+            Thread.sleep(5);
+        release.countDown();
+        return results;
+    }
+
+    @SneakyThrows
+    @Test
+    public void execute_shouldShareOneLoadBetweenConcurrentCalls() {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Future<Object> future : runConcurrently(executor, release, () ->
+                    singleFlight.execute("item", 1L, () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return new Object();
+                    }))) {
+                results.add(future.get());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertTrue(results.stream().allMatch(result -> result == results.get(0)));
+        assertEquals(THREADS, count("shareit.singleflight.calls"));
+        assertEquals(THREADS - 1, count("shareit.singleflight.coalesced"));
+
+        //Результат не кэшируется: следующий вызов загружает заново
+        singleFlight.execute("item", 1L, () -> loads.incrementAndGet());
+        assertEquals(2, loads.get());
+    }
+
+    @SneakyThrows
+    @Test
+    public void execute_shouldPassLoaderExceptionToAllCalls() {
+        CountDownLatch release = new CountDownLatch(1);
+        int failures = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Future<Object> future : runConcurrently(executor, release, () ->
+                    singleFlight.execute("item", 2L, () -> {
+                        await(release);
+                        throw new NotFoundException("Not found item id = 2", 2L);
+                    }))) {
+                ExecutionException e = assertThrows(ExecutionException.class, future::get);
+                assertInstanceOf(NotFoundException.class, e.getCause());
+                failures++;
+            }
+        }
+        assertEquals(THREADS, failures);
+    }
+
+    //Загрузка, начатая до записи, не отдается вызову после forget: он загружает заново
+    @SneakyThrows
+    @Test
+    public void forget_shouldStartNewLoadForLaterCalls() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> before = executor.submit(() -> singleFlight.execute("item", 3L, () -> {
+                await(release);
+                return "old";
+            }));
+            while (count("shareit.singleflight.calls") < 1)
+                Thread.sleep(5);
+
+            singleFlight.forget("item", 3L);
+            assertEquals("new", singleFlight.execute("item", 3L, () -> "new"));
+
+            release.countDown();
+            assertEquals("old", before.get());
+        }
+        assertEquals(0, count("shareit.singleflight.coalesced"));
+    }
+}
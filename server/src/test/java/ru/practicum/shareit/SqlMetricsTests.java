@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+@TestPropertySource(properties = "shareit.sql-metrics.alarm-statements=2")
+public class SqlMetricsTests {
+
+    private static final String OWNER_ITEMS = "ItemController.getAllItemsOfOwner";
+
+    private static final String ITEM = "ItemController.getItemById";
+
+    private final MockMvc mvc;
+
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    public void getAllItemsOfOwner_shouldRecordStatementsRowsAndAlarm() {
+        double statements = total("shareit.sql.statements", OWNER_ITEMS);
+        double rows = total("shareit.sql.rows", OWNER_ITEMS);
+        double alarms = alarms(OWNER_ITEMS);
+        long timed = timerCount(OWNER_ITEMS);
+
+        perform("/items");
+
+        //проверка владельца, вещи (3 строки) и бронирования вещей - сразу в DTO, без загрузки сущностей
+        assertEquals(statements + 3, total("shareit.sql.statements", OWNER_ITEMS));
+        assertTrue(total("shareit.sql.rows", OWNER_ITEMS) - rows >= 3);
+        assertEquals(0, meterRegistry.get("shareit.sql.entity.loads").tag("endpoint", OWNER_ITEMS)
+                .summary().max());
+        assertEquals(timed + 1, timerCount(OWNER_ITEMS));
+        //порог в тесте - 2 оператора
+        assertEquals(alarms + 1, alarms(OWNER_ITEMS));
+    }
+
+    @Test
+    public void getItemById_shouldCountEntityLoads() {
+        double loads = total("shareit.sql.entity.loads", ITEM);
+
+        perform("/items/1");
+
+        //вещь с владельцем
+        assertTrue(total("shareit.sql.entity.loads", ITEM) - loads >= 2);
+    }
+
+    @SneakyThrows
+    private void perform(String url) {
+        mvc.perform(get(url).header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk());
+    }
+
+    private double total(String metric, String endpoint) {
+        DistributionSummary summary = meterRegistry.find(metric).tag("endpoint", endpoint).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private long timerCount(String endpoint) {
+        Timer timer = meterRegistry.find("shareit.sql.execution").tag("endpoint", endpoint).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double alarms(String endpoint) {
+        return meterRegistry.counter("shareit.sql.alarms", "endpoint", endpoint).count();
+    }
+}
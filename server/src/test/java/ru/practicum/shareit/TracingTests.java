@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.tracing.Span;
+import ru.practicum.shareit.tracing.SpanExporter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(properties = "shareit.tracing.sample-rate=1.0")
+@AutoConfigureMockMvc
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class TracingTests {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String GATEWAY_SPAN_ID = "00f067aa0ba902b7";
+
+    private static final List<Span> SPANS = new CopyOnWriteArrayList<>();
+
+    private final MockMvc mvc;
+
+    @TestConfiguration
+    static class CollectingExporterConfig {
+
+        @Bean
+        @Primary
+        public SpanExporter collectingSpanExporter() {
+            return SPANS::add;
+        }
+    }
+
+    @BeforeEach
+    public void clearSpans() {
+        SPANS.clear();
+    }
+
+    @Test
+    @SneakyThrows
+    public void request_shouldContinueGatewayTraceAndRecordStages() {
+        mvc.perform(get("/users").header(Span.TRACEPARENT, "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        assertTrue(SPANS.stream().allMatch(span -> span.getTraceId().equals(TRACE_ID)));
+        Span server = find("GET /users");
+        assertEquals("SERVER", server.getKind());
+        assertEquals(GATEWAY_SPAN_ID, server.getParentId());
+        assertEquals("/users", server.getTags().get("http.route"));
+        assertEquals("200", server.getTags().get("http.status_code"));
+
+        Span controller = find("UserController.getAllUsers");
+        assertEquals(server.getId(), controller.getParentId());
+        Span service = find("UserServiceImpl.getAllUsers");
+        assertEquals(controller.getId(), service.getParentId());
+        Span repository = find("UserRepository.findAll");
+        assertEquals("repository", repository.getTags().get("stage"));
+        assertEquals(service.getId(), repository.getParentId());
+        Span mapper = find("UserMapperImpl.mapUsersListToDtoList");
+        assertEquals("mapper", mapper.getTags().get("stage"));
+        assertEquals(service.getId(), mapper.getParentId());
+        //дочерний span укладывается в родительский
+        assertTrue(controller.getDuration() <= server.getDuration());
+    }
+
+    @Test
+    @SneakyThrows
+    public void request_shouldNotRecordUnsampledTrace() {
+        mvc.perform(get("/users").header(Span.TRACEPARENT, "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-00"))
+                .andExpect(status().isOk());
+
+        assertTrue(SPANS.isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    public void request_shouldStartNewTraceWithoutHeader() {
+        mvc.perform(get("/users/1")).andExpect(status().isOk());
+
+        Span server = find("GET /users/1");
+        assertNull(server.getParentId());
+        assertEquals(32, server.getTraceId().length());
+        assertEquals("/users/{id}", server.getTags().get("http.route"));
+    }
+
+    private static Span find(String name) {
+        return SPANS.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in "
+                        + SPANS.stream().map(Span::getName).toList()));
+    }
+}
@@ -8,26 +8,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.service.ItemService;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
@@ -44,12 +46,6 @@ public class BookingControllerTests {
     @MockBean
     private BookingService service;
 
-    @MockBean
-    private UserService userService;
-
-    @MockBean
-    private ItemService itemService;
-
     private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     private final LocalDateTime startDate =
@@ -94,8 +90,8 @@ public class BookingControllerTests {
                 .start(startDate)
                 .end(endDate)
                 .build();
-        when(service.getBookingInfo(anyLong()))
-                .thenReturn(new BookingOutputDto());
+        when(service.getTaggedBookingInfo(anyLong()))
+                .thenReturn(Tagged.of(BookingOutputDto::new, 1L, 0L));
 
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/bookings/{bookingId}", bookingId)
@@ -105,7 +101,7 @@ public class BookingControllerTests {
 
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getBookingInfo(bookingId);
+        verify(service, times(1)).getTaggedBookingInfo(bookingId);
     }
 
     @SneakyThrows
@@ -163,13 +159,9 @@ public class BookingControllerTests {
     public void getAllOwnersBookings_whenAllValid_thenGetList() {
         long header = 1L;
         String state = "Current";
-        User user = new User(1L, "name", "a@email.net");
-        List<Item> items = List.of();
-        when(userService.getUser(anyLong()))
-                .thenReturn(user);
-        when(itemService.getItemsList(user))
-                .thenReturn(items);
-        when(service.getAllOwnersBookings(items, state))
+        int from = 5;
+        int size = 5;
+        when(service.getAllOwnersBookings(anyLong(), anyString(), anyInt(), anyInt()))
                 .thenReturn(List.of());
 
         RequestBuilder request = MockMvcRequestBuilders
@@ -177,14 +169,53 @@ public class BookingControllerTests {
                 .accept(MediaType.APPLICATION_JSON)
                 .header("X-Sharer-User-Id", header)
                 .param("state", state)
+                .param("from", String.valueOf(from))
+                .param("size", String.valueOf(size))
                 .contentType(MediaType.APPLICATION_JSON);
 
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(userService, times(1)).getUser(header);
-        verify(itemService, times(1)).getItemsList(user);
-        verify(service, never()).getAllOwnersBookings(items, state);
+        verify(service, times(1)).getAllOwnersBookings(header, state, from, size);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUsersBookingsAfter_whenHasNext_thenReturnNextCursor() {
+        long header = 1L;
+        BookingOutputDto last = BookingOutputDto.builder().id(7L).start(startDate).build();
+        when(service.getUsersBookingsAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(last), PageRequest.of(0, 1), true));
+
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/bookings")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", header)
+                .param("state", "ALL")
+                .param("cursor", "")
+                .param("size", "1");
 
+        MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        assertEquals(BookingCursor.of(last).encode(),
+                mvcResult.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER));
+        verify(service, times(1)).getUsersBookingsAfter(header, "ALL", "", 1);
+        verify(service, never()).getAllUsersBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUsersBookingsAfter_whenLastPage_thenNoCursor() {
+        when(service.getUsersBookingsAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/bookings")
+                .accept(MediaType.APPLICATION_JSON)
+                .header("X-Sharer-User-Id", 1L)
+                .param("cursor", "abc")
+                .param("size", "1");
+
+        MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        assertNull(mvcResult.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER));
     }
 
 }
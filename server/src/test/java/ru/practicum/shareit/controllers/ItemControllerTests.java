@@ -13,8 +13,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.comments.CommentDto;
 import ru.practicum.shareit.item.dto.comments.CommentInputDto;
 import ru.practicum.shareit.item.dto.items.ItemDto;
@@ -22,6 +24,7 @@ import ru.practicum.shareit.item.dto.items.ItemOutputDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -121,11 +124,31 @@ public class ItemControllerTests {
         verify(service, times(1)).deleteItem(header, itemId);
     }
 
+    @SneakyThrows
+    @Test
+    public void getItemAvailability_whenValidParams_thenGet() {
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(service.getItemAvailability(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new ItemAvailabilityDto(itemId, from, to, true, List.of()));
+
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/items/{itemId}/availability", itemId)
+                .param("from", "2030-01-01T10:00:00")
+                .param("to", "2030-01-02T10:00:00")
+                .accept(MediaType.APPLICATION_JSON);
+        MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+
+        assertNotNull(mvcResult.getResponse());
+        verify(service, times(1)).getItemAvailability(itemId, from, to);
+    }
+
     @SneakyThrows
     @Test
     public void getItemById_whenValidPathVariable_thenGet() {
         long itemId = 1L;
-        when(service.getItemById(anyLong())).thenReturn(outputItem);
+        when(service.getTaggedItemById(anyLong())).thenReturn(Tagged.of(() -> outputItem, 1L, 0L));
 
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/items/{itemId}", itemId)
@@ -134,7 +157,7 @@ public class ItemControllerTests {
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
 
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getItemById(itemId);
+        verify(service, times(1)).getTaggedItemById(itemId);
     }
 
     @SneakyThrows
@@ -157,7 +180,7 @@ public class ItemControllerTests {
     @Test
     public void getItemsByContext_AlwaysGet() {
         String text = "nothing";
-        when(service.getItemsByContext(anyString())).thenReturn(List.of());
+        when(service.getItemsByContext(anyString(), anyInt(), anyInt())).thenReturn(List.of());
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/items/search")
                 .accept(MediaType.APPLICATION_JSON)
@@ -165,7 +188,7 @@ public class ItemControllerTests {
                 .contentType(MediaType.APPLICATION_JSON);
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getItemsByContext(text);
+        verify(service, times(1)).getItemsByContext(text, 0, 20);
     }
 
     @SneakyThrows
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.RequestDto;
@@ -63,7 +64,7 @@ public class ItemRequestControllerTests {
     @Test
     public void getUsersRequest_whenValidPathVariable_thenGetting() {
         long header = 1L;
-        when(service.getUsersRequests(anyLong())).thenReturn(List.of());
+        when(service.getTaggedUsersRequests(anyLong())).thenReturn(Tagged.of(List::of));
 
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/requests")
@@ -73,14 +74,14 @@ public class ItemRequestControllerTests {
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
 
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getUsersRequests(header);
+        verify(service, times(1)).getTaggedUsersRequests(header);
     }
 
     @SneakyThrows
     @Test
     public void getAllRequests_whenValidPathVariable_thenGetting() {
         long header = 1L;
-        when(service.getAllAnotherUsersRequests(anyLong())).thenReturn(List.of());
+        when(service.getTaggedAnotherUsersRequests(anyLong())).thenReturn(Tagged.of(List::of));
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/requests/all")
                 .accept(MediaType.APPLICATION_JSON)
@@ -88,7 +89,7 @@ public class ItemRequestControllerTests {
                 .contentType(MediaType.APPLICATION_JSON);
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getAllAnotherUsersRequests(header);
+        verify(service, times(1)).getTaggedAnotherUsersRequests(header);
     }
 
     @SneakyThrows
@@ -96,7 +97,7 @@ public class ItemRequestControllerTests {
     public void getRequestById_whenValidHeaderAndPathVariable_thenGetting() {
         long requestId = 1L;
         long header = 1L;
-        when(service.getRequestById(anyLong(), anyLong())).thenReturn(standardDto);
+        when(service.getTaggedRequestById(anyLong(), anyLong())).thenReturn(Tagged.of(() -> standardDto, 1L, 0L));
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/requests/{requestId}", requestId)
                 .accept(MediaType.APPLICATION_JSON)
@@ -104,7 +105,7 @@ public class ItemRequestControllerTests {
                 .contentType(MediaType.APPLICATION_JSON);
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getRequestById(header, requestId);
+        verify(service, times(1)).getTaggedRequestById(header, requestId);
     }
 
 }
@@ -7,12 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.auxiliary.Tagged;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
 import ru.practicum.shareit.user.UserController;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -117,7 +120,7 @@ public class UserControllerTests {
     @SneakyThrows
     @Test
     public void getUserById_whenValidId_thenGetting() {
-        when(service.getUserById(anyLong())).thenReturn(fullUser);
+        when(service.getTaggedUserById(anyLong())).thenReturn(Tagged.of(() -> fullUser, 1L, 0L));
 
         RequestBuilder request = MockMvcRequestBuilders
                 .get("/users/1")
@@ -126,7 +129,25 @@ public class UserControllerTests {
         MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
 
         assertNotNull(mvcResult.getResponse());
-        verify(service, times(1)).getUserById(1L);
+        verify(service, times(1)).getTaggedUserById(1L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void getUserById_whenETagMatches_thenNotModifiedWithoutMapping() {
+        Tagged<UserDto> tagged = Tagged.of(() -> {
+            throw new AssertionError("DTO must not be built for 304");
+        }, 1L, 0L);
+        when(service.getTaggedUserById(anyLong())).thenReturn(tagged);
+
+        RequestBuilder request = MockMvcRequestBuilders
+                .get("/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + tagged.etag())
+                .accept(MediaType.APPLICATION_JSON);
+        MvcResult mvcResult = mockMvc.perform(request).andExpect(status().isNotModified()).andReturn();
+
+        assertEquals(tagged.etag(), mvcResult.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, mvcResult.getResponse().getContentLength());
     }
 
     @SneakyThrows
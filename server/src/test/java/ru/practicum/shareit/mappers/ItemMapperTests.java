@@ -30,7 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
-@Sql({"/schema.sql", "/data.sql"})
+@Sql({"/clean.sql", "/data.sql"})
 @ActiveProfiles("test")
 
 public class ItemMapperTests {
@@ -68,7 +68,7 @@ public class ItemMapperTests {
     @Test
     public void mapItemsListToShortItemsList_shouldCorrectlyConvert() {
         User user = userService.getUser(1L);
-        List<Item> items = itemService.getItemsList(user);
+        List<Item> items = itemService.getItemsList(user.getId());
 
         List<ShortItemDto> shortItemDto = ItemMapper.mapItemsListToShortItemsList(items).stream()
                 .sorted(Comparator.comparing(ShortItemDto::getItemId))
@@ -92,9 +92,9 @@ public class ItemMapperTests {
                 .items(null)
                 .build();
         Booking lastBooking = new Booking(1L, LocalDateTime.now().minusDays(2L), LocalDateTime.now().minusDays(1L),
-                item, requestor, BookStatus.APPROVED);
+                item, requestor, BookStatus.APPROVED, 0L);
         Booking nextBooking = new Booking(2L, LocalDateTime.now().plusDays(2L), LocalDateTime.now().plusDays(3L),
-                item, newBooker, BookStatus.WAITING);
+                item, newBooker, BookStatus.WAITING, 0L);
         item.setRequest(request);
         item.setLastBooking(lastBooking);
         item.setNextBooking(nextBooking);
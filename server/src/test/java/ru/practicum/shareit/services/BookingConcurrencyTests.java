@@ -0,0 +1,116 @@
+package ru.practicum.shareit.services;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Без @Transactional: каждое одобрение выполняется в своей транзакции, как при параллельных запросах
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class BookingConcurrencyTests {
+
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    private Long addBooking(long itemId, long bookerId, int shiftHours) {
+        return bookingService.addNewBooking(BookingInputDto.builder()
+                .start(start.plusHours(shiftHours))
+                .end(start.plusHours(shiftHours + 2))
+                .itemId(itemId)
+                .booker(bookerId)
+                .status("WAITING")
+                .build()).getId();
+    }
+
+    //Одобряет бронирования одновременно из THREADS потоков, возвращает число успешных одобрений
+    private int approveConcurrently(long ownerId, List<Long> bookingIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                try {
+                    bookingService.approveBooking(ownerId, bookingId, true);
+                    approved.incrementAndGet();
+                } catch (DuplicateDataException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(bookingIds.size(), approved.get() + rejected.get());
+        return approved.get();
+    }
+
+    private int approvedCount(long itemId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE item_id = ? AND status = 'APPROVED'", Integer.class, itemId);
+    }
+
+    @Test
+    public void approveBooking_whenOverlappingBookingsApprovedInParallel_thenOnlyOneApproved() throws Exception {
+        //Вещь 2 принадлежит пользователю 2; все бронирования пересекаются со всеми
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(addBooking(2L, i % 2 == 0 ? 1L : 3L, i % 2));
+        }
+
+        assertEquals(1, approveConcurrently(2L, bookingIds));
+        assertEquals(1, approvedCount(2L));
+    }
+
+    @Test
+    public void approveBooking_whenBookingsDoNotOverlap_thenAllApproved() throws Exception {
+        //Бронирования вещей 1 и 3 (владелец 1) идут друг за другом без пересечений
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(addBooking(i % 2 == 0 ? 1L : 3L, 3L, i * 2));
+        }
+
+        assertEquals(THREADS, approveConcurrently(1L, bookingIds));
+        assertEquals(THREADS / 2, approvedCount(1L));
+        assertEquals(THREADS / 2, approvedCount(3L));
+    }
+
+    @Test
+    public void addNewBooking_whenOverlapsApprovedBooking_thenConflict() {
+        Long bookingId = addBooking(2L, 1L, 0);
+        bookingService.approveBooking(2L, bookingId, true);
+
+        assertThrows(DuplicateDataException.class, () -> addBooking(2L, 3L, 1));
+        //Интервалы полуоткрытые: бронирование, начинающееся в момент окончания, допустимо
+        addBooking(2L, 3L, 2);
+    }
+}
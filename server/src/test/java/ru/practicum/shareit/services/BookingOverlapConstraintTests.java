@@ -0,0 +1,79 @@
+package ru.practicum.shareit.services;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+//В H2 нет ограничения bookings_approved_no_overlap, поэтому ошибки БД при одобрении имитируются
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class BookingOverlapConstraintTests {
+
+    private final BookingService bookingService;
+
+    @SpyBean
+    private BookingRepository repository;
+
+    private Long newBooking() {
+        return bookingService.addNewBooking(BookingInputDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(1L)
+                .booker(3L)
+                .status("WAITING")
+                .build()).getId();
+    }
+
+    private void failOnSave(Throwable cause) {
+        doThrow(new DataIntegrityViolationException("could not execute statement", cause))
+                .when(repository).saveAndFlush(any());
+    }
+
+    @Test
+    public void approveBooking_whenOverlapConstraintViolated_thenDuplicateDataException() {
+        Long bookingId = newBooking();
+        failOnSave(new ConstraintViolationException("conflicting key value violates exclusion constraint",
+                new SQLException("exclusion", "23P01"), "bookings_approved_no_overlap"));
+        assertThrows(DuplicateDataException.class, () -> bookingService.approveBooking(1L, bookingId, true));
+    }
+
+    @Test
+    public void approveBooking_whenExclusionViolationWithoutConstraintName_thenDuplicateDataException() {
+        Long bookingId = newBooking();
+        failOnSave(new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+        assertThrows(DuplicateDataException.class, () -> bookingService.approveBooking(1L, bookingId, true));
+    }
+
+    @Test
+    public void approveBooking_whenOtherConstraintViolated_thenRethrown() {
+        Long bookingId = newBooking();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("null value in column", new SQLException("not null", "23502"),
+                        "bookings_booker_id_not_null"));
+        doThrow(violation).when(repository).saveAndFlush(any());
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.approveBooking(1L, bookingId, false)));
+    }
+}
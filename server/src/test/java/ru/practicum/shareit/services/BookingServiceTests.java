@@ -1,16 +1,23 @@
 package ru.practicum.shareit.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
 import ru.practicum.shareit.auxiliary.exceptions.ValidationException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputMapper;
@@ -23,6 +30,8 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,7 +39,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
-@Sql({"/schema.sql", "/data.sql"})
+@Sql({"/clean.sql", "/data.sql"})
 @ActiveProfiles("test")
 public class BookingServiceTests {
 
@@ -44,6 +53,8 @@ public class BookingServiceTests {
 
     private final UserService userService;
 
+    private final ObjectMapper objectMapper;
+
     //private final ServerErrorHandler handler;
 
     //Testing addNewBooking
@@ -113,6 +124,25 @@ public class BookingServiceTests {
         //assertEquals("Item is not available", e.message());
     }
 
+    @Test
+    public void addNewBookings_shouldSaveValidAndReportErrorsPerElement() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingInputDto> batch = List.of(
+                BookingInputDto.builder().start(start).end(start.plusHours(1)).itemId(1L).build(),
+                BookingInputDto.builder().start(start).end(start.plusHours(1)).itemId(100L).build(),
+                BookingInputDto.builder().start(start).end(start.plusHours(1)).itemId(4L).build(),
+                BookingInputDto.builder().start(start).end(start.plusHours(1)).itemId(2L).build());
+
+        List<BatchResult<BookingOutputDto>> results = bookingService.addNewBookings(2L, batch);
+
+        assertEquals(List.of(200, 404, 400, 400), results.stream().map(BatchResult::getStatus).toList());
+        assertEquals(BookStatus.WAITING, results.get(0).getResult().getStatus());
+        assertEquals(2L, results.get(0).getResult().getBooker().getId());
+        assertEquals("Item is not available", results.get(2).getError().getMessage());
+        assertEquals("User can't book own item", results.get(3).getError().getMessage());
+        assertEquals(1L, em.createQuery("Select count(b) from Booking b", Long.class).getSingleResult());
+    }
+
     //Testing approveBooking
     @Test
     public void shouldApproveBooking() {
@@ -242,6 +272,9 @@ public class BookingServiceTests {
                 .build();
         bookingService.addNewBooking(booking2);
 
+        //Списки строятся проекцией из БД, поэтому проверочный список тоже читается из БД
+        em.flush();
+        em.clear();
         TypedQuery<Booking> query =
                 em.createQuery("Select b from Booking b where b.status = :status", Booking.class);
 
@@ -254,14 +287,14 @@ public class BookingServiceTests {
 
         assertNotNull(bookListForTest);
         assertEquals(2, bookListForTest.size());
-        assertEquals(bookControlList, bookListForTest);
+        assertEquals(json(bookControlList), json(bookListForTest));
 
         bookListForTest =
                 bookingService.getAllUsersBookings(3L, "ALL", 0, 10);
 
         assertNotNull(bookListForTest);
         assertEquals(2, bookListForTest.size());
-        assertEquals(bookControlList, bookListForTest);
+        assertEquals(json(bookControlList), json(bookListForTest));
 
         bookListForTest =
                 bookingService.getAllUsersBookings(3L, "PAST", 0, 10);
@@ -301,7 +334,9 @@ public class BookingServiceTests {
                 .build();
         bookingService.addNewBooking(booking2);
 
-        //Готовим проверочный список
+        //Готовим проверочный список. Списки строятся проекцией из БД, поэтому он тоже читается из БД
+        em.flush();
+        em.clear();
         TypedQuery<Booking> query =
                 em.createQuery("Select b from Booking b where b.status = :status", Booking.class);
         List<Booking> bookingList = query.setParameter("status", BookStatus.WAITING)
@@ -309,37 +344,159 @@ public class BookingServiceTests {
         List<BookingOutputDto> bookControlList = bookingOutputMapper.mapBookingListToDtoList(bookingList);
 
         //Читаем список средствами приложения
-        User user = userService.getUser(1L);
-        List<Item> items = itemRepository.findAllByOwner(user);
         List<BookingOutputDto> bookListForTest =
-                bookingService.getAllOwnersBookings(items, "WAITING");
+                bookingService.getAllOwnersBookings(1L, "WAITING", 0, 10);
 
         assertNotNull(bookListForTest);
         assertEquals(2, bookListForTest.size());
-        assertEquals(bookControlList, bookListForTest);
+        assertEquals(json(bookControlList), json(bookListForTest));
 
         bookListForTest =
-                bookingService.getAllOwnersBookings(items, "ALL");
+                bookingService.getAllOwnersBookings(1L, "ALL", 0, 10);
 
         assertNotNull(bookListForTest);
         assertEquals(2, bookListForTest.size());
-        assertEquals(bookControlList, bookListForTest);
+        assertEquals(json(bookControlList), json(bookListForTest));
 
         bookListForTest =
-                bookingService.getAllOwnersBookings(items, "PAST");
+                bookingService.getAllOwnersBookings(1L, "PAST", 0, 10);
 
         assertEquals(0, bookListForTest.size());
 
         bookListForTest =
-                bookingService.getAllOwnersBookings(items, "FUTURE");
+                bookingService.getAllOwnersBookings(1L, "FUTURE", 0, 10);
 
         assertEquals(2, bookListForTest.size());
 
         bookListForTest =
-                bookingService.getAllOwnersBookings(items, "CURRENT");
+                bookingService.getAllOwnersBookings(1L, "CURRENT", 0, 10);
 
         assertEquals(0, bookListForTest.size());
 
     }
 
+    @Test
+    public void getAllOwnersBookings_shouldPaginate() {
+        for (long bookerId : List.of(2L, 3L)) {
+            bookingService.addNewBooking(BookingInputDto.builder()
+                    .start(LocalDateTime.now().plusDays(1L))
+                    .end(LocalDateTime.now().plusDays(2L))
+                    .itemId(1L)
+                    .booker(bookerId)
+                    .status("WAITING")
+                    .build());
+        }
+        //Бронирование чужой вещи не должно попадать в выборку собственника
+        bookingService.addNewBooking(BookingInputDto.builder()
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .itemId(2L)
+                .booker(3L)
+                .status("WAITING")
+                .build());
+
+        assertEquals(2, bookingService.getAllOwnersBookings(1L, "ALL", 0, 10).size());
+        assertEquals(1, bookingService.getAllOwnersBookings(1L, "ALL", 0, 1).size());
+        assertEquals(1, bookingService.getAllOwnersBookings(1L, "ALL", 1, 1).size());
+        assertEquals(0, bookingService.getAllOwnersBookings(1L, "ALL", 2, 1).size());
+    }
+
+    @Test
+    @SneakyThrows
+    public void bookingLists_shouldBeReadAsProjectionInOneQuery() {
+        //Вещи 1 и 3 собственника 1, бронирования от разных пользователей
+        for (long itemId : List.of(1L, 3L)) {
+            for (long bookerId : List.of(2L, 3L)) {
+                bookingService.addNewBooking(BookingInputDto.builder()
+                        .start(LocalDateTime.now().plusDays(bookerId))
+                        .end(LocalDateTime.now().plusDays(bookerId + 1))
+                        .itemId(itemId)
+                        .booker(bookerId)
+                        .status("WAITING")
+                        .build());
+            }
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<BookingOutputDto> ownersBookings = bookingService.getAllOwnersBookings(1L, "ALL", 0, 10);
+        //Ответ сериализуется, чтобы незагруженные связи подгрузились и попали в счетчик
+        String json = objectMapper.writeValueAsString(ownersBookings);
+
+        //проверка собственника и одна выборка бронирований вместе с вещами и пользователями - сразу в DTO
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(4, ownersBookings.size());
+        assertTrue(json.contains("Second user"));
+        assertTrue(json.contains("Third item"));
+
+        statistics.clear();
+        Slice<BookingOutputDto> usersBookings = bookingService.getUsersBookingsAfter(3L, "ALL", null, 10);
+        objectMapper.writeValueAsString(usersBookings.getContent());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        statistics.setStatisticsEnabled(false);
+        assertEquals(2, usersBookings.getNumberOfElements());
+    }
+
+    @Test
+    public void getAllOwnersBookings_whenOwnerNotExists_thenNotFound() {
+        assertThrows(NotFoundException.class, () -> bookingService.getAllOwnersBookings(100L, "ALL", 0, 10));
+    }
+
+    @Test
+    public void getUsersBookingsAfter_shouldWalkAllPagesWithoutGapsAndDuplicates() {
+        //Два бронирования с одинаковой датой начала проверяют, что порядок устойчив за счет id
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> itemIds = List.of(1L, 2L, 3L, 1L, 2L);
+        for (int i = 0; i < itemIds.size(); i++) {
+            bookingService.addNewBooking(BookingInputDto.builder()
+                    .start(i < 2 ? start : start.plusHours(i))
+                    .end(start.plusDays(1L))
+                    .itemId(itemIds.get(i))
+                    .booker(3L)
+                    .status("WAITING")
+                    .build());
+        }
+
+        List<BookingOutputDto> walked = new ArrayList<>();
+        String cursor = "";
+        Slice<BookingOutputDto> page;
+        do {
+            page = bookingService.getUsersBookingsAfter(3L, "FUTURE", cursor, 2);
+            walked.addAll(page.getContent());
+            if (page.hasNext())
+                cursor = BookingCursor.of(page.getContent().get(page.getNumberOfElements() - 1)).encode();
+        } while (page.hasNext());
+
+        List<BookingOutputDto> expected = bookingService.getAllUsersBookings(3L, "FUTURE", 0, 10).stream()
+                .sorted((a, b) -> a.getStart().equals(b.getStart()) ? b.getId().compareTo(a.getId())
+                        : b.getStart().compareTo(a.getStart()))
+                .toList();
+        assertEquals(5, walked.size());
+        assertEquals(json(expected), json(walked));
+    }
+
+    @Test
+    public void getUsersBookingsAfter_whenCursorInvalid_thenValidationException() {
+        assertThrows(ValidationException.class, () -> bookingService.getUsersBookingsAfter(3L, "ALL", "###", 10));
+    }
+
+    @Test
+    public void bookingCursor_shouldSurviveEncoding() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 600), 42L);
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+        assertEquals(BookingCursor.FIRST, BookingCursor.decode(""));
+    }
+
+
+    @SneakyThrows
+    private String json(Object value) {
+        return objectMapper.writeValueAsString(value);
+    }
 }
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.items.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Без @Transactional: кэш второго уровня обновляется при фиксации транзакций сервисов
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class EntityCacheTests {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final MeterRegistry meterRegistry;
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    private Statistics statistics;
+
+    //Данные перезаписываются скриптами в обход Hibernate, поэтому кэш очищаем перед каждым тестом
+    @BeforeEach
+    public void clearCache() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private double cacheRequests(String region, String result) {
+        return meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", result)
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    public void getUser_whenRepeated_thenServedFromCacheAndCounted() {
+        userService.getUser(1L);
+        long statementsAfterFirstCall = statistics.getPrepareStatementCount();
+
+        userService.getUser(1L);
+
+        assertEquals(statementsAfterFirstCall, statistics.getPrepareStatementCount());
+        assertEquals(1, cacheRequests("users", "miss"));
+        assertEquals(1, cacheRequests("users", "hit"));
+    }
+
+    @Test
+    public void checkUserExists_whenUserCached_thenNoStatements() {
+        userService.getUser(1L);
+        statistics.clear();
+
+        userService.checkUserExists(1L);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertThrows(NotFoundException.class, () -> userService.checkUserExists(100L));
+    }
+
+    @Test
+    public void getItem_whenRepeated_thenItemAndOwnerServedFromCache() {
+        itemService.getItem(1L);
+        statistics.clear();
+
+        itemService.getItem(1L);
+        userService.getUser(1L);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateUserAndItem_thenCacheReturnsNewData() {
+        userService.getUser(2L);
+        itemService.getItem(2L);
+
+        userService.updateUser(new UserDto(2L, "Renamed user", null));
+        itemService.updateItem(2L, 2L, ItemDto.builder().name("Renamed item").build());
+
+        assertEquals("Renamed user", userService.getUser(2L).getName());
+        assertEquals("Renamed item", itemService.getItem(2L).getName());
+    }
+
+    @Test
+    public void deleteUserOrItem_thenCachedEntitiesAreGone() {
+        itemService.getItem(1L);
+        itemService.getItem(2L);
+
+        //вещь 1 удаляется каскадно вместе с владельцем
+        userService.deleteUser(1L);
+        itemService.deleteItem(2L, 2L);
+
+        assertThrows(NotFoundException.class, () -> userService.getUser(1L));
+        assertThrows(NotFoundException.class, () -> itemService.getItem(1L));
+        assertThrows(NotFoundException.class, () -> itemService.getItem(2L));
+    }
+}
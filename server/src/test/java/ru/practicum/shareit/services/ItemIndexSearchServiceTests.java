@@ -0,0 +1,86 @@
+package ru.practicum.shareit.services;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
+import ru.practicum.shareit.item.dto.items.ItemDto;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
+import ru.practicum.shareit.item.search.IndexItemSearcher;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "shareit.search.mode=index")
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class ItemIndexSearchServiceTests {
+
+    private final ItemService itemService;
+
+    private final IndexItemSearcher searcher;
+
+    //Данные загружаются после старта контекста, поэтому индекс перестраиваем перед каждым тестом
+    @BeforeEach
+    public void rebuildIndex() {
+        searcher.rebuild();
+    }
+
+    private List<Long> search(String text, int from, int size) {
+        return itemService.getItemsByContext(text, from, size).stream().map(ItemOutputDto::getId).toList();
+    }
+
+    @Test
+    public void getItemsByContext_shouldReturnSameResultsAsSqlSearch() {
+        assertEquals(List.of(1L, 3L), search("ir", 0, 20));
+        assertEquals(List.of(1L, 2L, 3L), search("DESCRIPTION", 0, 20));
+        assertEquals(List.of(2L), search("item", 1, 1));
+        assertEquals(List.of(), search("%", 0, 20));
+        assertEquals(List.of(), search("   ", 0, 20));
+    }
+
+    @Test
+    public void getItemsByContext_shouldFollowCreateUpdateAndDelete() {
+        ItemOutputDto drill = itemService.createItem(ItemDto.builder()
+                .name("Drill")
+                .description("Second item for drilling")
+                .available(true)
+                .owner(3L)
+                .build());
+        assertEquals(List.of(2L, drill.getId()), search("second", 0, 20));
+
+        itemService.updateItem(3L, drill.getId(), ItemDto.builder().available(false).build());
+        assertEquals(List.of(2L), search("second", 0, 20));
+
+        itemService.updateItem(1L, 4L, ItemDto.builder().name("Hammer").available(true).build());
+        assertEquals(List.of(4L), search("hammer", 0, 20));
+
+        itemService.deleteItem(2L, 2L);
+        assertEquals(List.of(), search("second", 0, 20));
+    }
+
+    @Test
+    public void createItems_shouldUpdateIndexOnlyAfterCommit() {
+        List<Long> ids = itemService.createItems(3L, List.of(ItemDto.builder()
+                        .name("Drill")
+                        .description("Batch drill")
+                        .available(true)
+                        .build()))
+                .stream().map(BatchResult::getResult).map(ItemOutputDto::getId).toList();
+        assertEquals(List.of(), search("batch", 0, 20));
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertEquals(ids, search("batch", 0, 20));
+    }
+}
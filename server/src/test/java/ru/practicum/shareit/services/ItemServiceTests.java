@@ -1,20 +1,26 @@
 package ru.practicum.shareit.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
 import ru.practicum.shareit.auxiliary.exceptions.AccessNotAllowedException;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.auxiliary.exceptions.ValidationException;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.comments.CommentInputDto;
 import ru.practicum.shareit.item.dto.items.ItemDto;
 import ru.practicum.shareit.item.dto.items.ItemMapper;
@@ -22,19 +28,22 @@ import ru.practicum.shareit.item.dto.items.ItemOutputDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
-@Sql({"/schema.sql", "/data.sql"})
+@Sql({"/clean.sql", "/data.sql"})
 @ActiveProfiles("test")
 public class ItemServiceTests {
 
@@ -48,6 +57,8 @@ public class ItemServiceTests {
 
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @Test
     public void createItem_whenItemDtoCorrect_thenCreate() {
         ItemDto testedItem = ItemDto.builder()
@@ -70,6 +81,46 @@ public class ItemServiceTests {
         assertEquals(testedItem.getDescription(), itemFromBase.getDescription());
     }
 
+    @Test
+    public void createItems_shouldCreateValidAndReportMissingRequest() {
+        ItemDto first = ItemDto.builder().name("Batch item").description("First of batch").available(true).build();
+        ItemDto withoutRequest = ItemDto.builder().name("Orphan").description("Unknown request").available(true)
+                .requestId(100L).build();
+        ItemDto second = ItemDto.builder().name("Batch item 2").description("Second of batch").available(false)
+                .build();
+
+        List<BatchResult<ItemOutputDto>> results = itemService.createItems(3L, List.of(first, withoutRequest, second));
+
+        assertEquals(List.of(200, 404, 200), results.stream().map(BatchResult::getStatus).toList());
+        assertEquals(3L, results.get(0).getResult().getOwner().getId());
+        assertEquals("Batch item 2", results.get(2).getResult().getName());
+        assertEquals(2, itemService.getItemsList(3L).size());
+    }
+
+    @Test
+    public void createItems_shouldInsertWithJdbcBatch() {
+        List<ItemDto> batch = IntStream.range(0, 20)
+                .mapToObj(i -> ItemDto.builder().name("Item " + i).description("Batch").available(true).build())
+                .toList();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        itemService.createItems(3L, batch);
+        em.flush();
+
+        //Проверка владельца, одно обращение к последовательности за блоком id и один пакет из 20 INSERT
+        assertEquals(3, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+        assertEquals(20, itemService.getItemsList(3L).size());
+    }
+
+    @Test
+    public void createItems_whenOwnerNotFound_thenNotFound() {
+        ItemDto item = ItemDto.builder().name("Batch item").description("First of batch").available(true).build();
+        assertThrows(NotFoundException.class, () -> itemService.createItems(100L, List.of(item)));
+    }
+
     @Test
     public void updateItem_whenItemDtoCorrect_thenUpdate() {
         ItemDto itemForUpdate = ItemDto.builder()
@@ -200,7 +251,113 @@ public class ItemServiceTests {
         List<ItemOutputDto> receivedItems = itemService.getAllItemsOfOwner(userId);
 
         assertNotNull(receivedItems);
-        assertEquals(testItems, receivedItems);
+        //Список строится проекцией, а не из сущностей контекста, поэтому сравнивается содержимое ответа
+        assertEquals(json(testItems), json(receivedItems));
+    }
+
+    @Test
+    public void getAllItemsOfOwner_shouldLoadBookingsWithFixedNumberOfStatements() {
+        //У собственника 1 вещи 1 и 3, у каждой есть прошлое и будущее бронирование
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (long itemId : List.of(1L, 3L)) {
+            bookingService.addNewBooking(BookingInputDto.builder()
+                    .start(now.minusDays(3))
+                    .end(now.minusDays(2))
+                    .booker(2L)
+                    .itemId(itemId)
+                    .status("WAITING")
+                    .build());
+            bookingService.addNewBooking(BookingInputDto.builder()
+                    .start(now.minusDays(5))
+                    .end(now.minusDays(4))
+                    .booker(3L)
+                    .itemId(itemId)
+                    .status("WAITING")
+                    .build());
+            bookingService.addNewBooking(BookingInputDto.builder()
+                    .start(now.plusDays(itemId))
+                    .end(now.plusDays(itemId + 1))
+                    .booker(3L)
+                    .itemId(itemId)
+                    .status("WAITING")
+                    .build());
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<ItemOutputDto> receivedItems = itemService.getAllItemsOfOwner(1L);
+
+        //owner, список вещей и один запрос бронирований - независимо от количества вещей.
+        //Вещи и бронирования читаются проекциями, сущности не загружаются
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        statistics.setStatisticsEnabled(false);
+        assertEquals(3, receivedItems.size());
+        for (ItemOutputDto item : receivedItems) {
+            if (item.getId() == 4L) {
+                assertNull(item.getLastBooking());
+                assertNull(item.getNextBooking());
+                continue;
+            }
+            assertNotNull(item.getLastBooking());
+            assertEquals(now.minusDays(3), item.getLastBooking().getStartDateTime());
+            assertNotNull(item.getNextBooking());
+            assertEquals(now.plusDays(item.getId()), item.getNextBooking().getStartDateTime());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void getItemById_shouldLoadResponseGraphWithoutLazyLoads() {
+        User requestor = em.find(User.class, 2L);
+        ItemRequest request = ItemRequest.builder()
+                .description("Need item")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+        em.persist(request);
+        Item item = em.find(Item.class, 1L);
+        item.setRequest(request);
+        em.persist(new Comment("First comment", item, requestor));
+        em.persist(new Comment("Second comment", item, em.find(User.class, 3L)));
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        ItemOutputDto receivedItem = itemService.getItemById(1L);
+        //Ответ сериализуется, чтобы незагруженные связи подгрузились и попали в счетчик
+        String json = objectMapper.writeValueAsString(receivedItem);
+
+        //вещь с владельцем, запросом и автором запроса, бронирования, комментарии с авторами
+        assertEquals(3, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+        assertTrue(json.contains("First user"));
+        assertTrue(json.contains("Second user"));
+        assertEquals(2, receivedItem.getComments().size());
+    }
+
+    @Test
+    @SneakyThrows
+    public void getItemsByContext_shouldLoadOwnersWithPage() {
+        em.getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<ItemOutputDto> receivedItems = itemService.getItemsByContext("description", 0, 10);
+        String json = objectMapper.writeValueAsString(receivedItems);
+
+        //id страницы и вещи страницы вместе с владельцами - независимо от количества вещей и владельцев
+        assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+        assertEquals(List.of(1L, 2L, 3L), receivedItems.stream().map(ItemOutputDto::getId).toList());
+        assertTrue(json.contains("Second user"));
     }
 
     @Test
@@ -214,13 +371,97 @@ public class ItemServiceTests {
                 .getResultList();
         List<ItemOutputDto> testItems = ItemMapper.mapItemsListToItemOutputDtoList(items);
 
-        List<ItemOutputDto> receivedItems = itemService.getItemsByContext(context);
+        List<ItemOutputDto> receivedItems = itemService.getItemsByContext(context, 0, 20);
 
         assertNotNull(receivedItems);
         assertEquals(2, receivedItems.size());
         assertEquals(testItems, receivedItems);
     }
 
+    @Test
+    public void getItemsByContext_shouldSearchDescriptionAndRankNameMatchesFirst() {
+        //"item" есть в названиях всех вещей и в описании недоступной вещи 4, "description" - только в описаниях
+        List<ItemOutputDto> byDescription = itemService.getItemsByContext("DESCRIPTION", 0, 20);
+        assertEquals(List.of(1L, 2L, 3L), byDescription.stream().map(ItemOutputDto::getId).toList());
+
+        itemService.createItem(ItemDto.builder()
+                .name("Drill")
+                .description("Second item for drilling")
+                .available(true)
+                .owner(3L)
+                .build());
+        List<ItemOutputDto> ranked = itemService.getItemsByContext("second", 0, 20);
+        assertEquals(List.of("Second item", "Drill"), ranked.stream().map(ItemOutputDto::getName).toList());
+    }
+
+    @Test
+    public void getItemsByContext_shouldPaginateAndEscapeWildcards() {
+        assertEquals(List.of(2L), itemService.getItemsByContext("item", 1, 1).stream()
+                .map(ItemOutputDto::getId).toList());
+        assertEquals(0, itemService.getItemsByContext("%", 0, 20).size());
+        assertEquals(0, itemService.getItemsByContext("   ", 0, 20).size());
+    }
+
+    @Test
+    public void getItemAvailability_shouldReturnApprovedBookingsInPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long bookingId = bookingService.addNewBooking(BookingInputDto.builder()
+                .start(start)
+                .end(start.plusDays(2))
+                .booker(1L)
+                .itemId(2L)
+                .status("WAITING")
+                .build()).getId();
+        //Ожидающее подтверждения бронирование вещь не занимает
+        assertTrue(itemService.getItemAvailability(2L, start, start.plusDays(1)).getAvailable());
+
+        bookingService.approveBooking(2L, bookingId, true);
+
+        ItemAvailabilityDto busy = itemService.getItemAvailability(2L, start.minusDays(1), start.plusDays(1));
+        assertFalse(busy.getAvailable());
+        assertEquals(1, busy.getBusy().size());
+        assertEquals(bookingId, busy.getBusy().get(0).getBookingId());
+        assertTrue(itemService.getItemAvailability(2L, start.plusDays(2), start.plusDays(3)).getAvailable());
+        //Недоступная для аренды вещь не свободна ни в какой период
+        assertFalse(itemService.getItemAvailability(4L, start, start.plusDays(1)).getAvailable());
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(2L, start, start));
+        assertThrows(NotFoundException.class, () -> itemService.getItemAvailability(100L, start, start.plusDays(1)));
+    }
+
+    @Test
+    public void getTaggedItemById_shouldChangeETagOnlyWhenResponseChanges() {
+        String etag = itemService.getTaggedItemById(1L).etag();
+        assertEquals(etag, itemService.getTaggedItemById(1L).etag());
+
+        itemService.updateItem(1L, 1L, ItemDto.builder().description("New description").build());
+        em.flush();
+        String updatedEtag = itemService.getTaggedItemById(1L).etag();
+        assertNotEquals(etag, updatedEtag);
+
+        //Новое бронирование становится следующим бронированием вещи
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.addNewBooking(BookingInputDto.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .booker(2L)
+                .itemId(1L)
+                .status("WAITING")
+                .build());
+        assertNotEquals(updatedEtag, itemService.getTaggedItemById(1L).etag());
+    }
+
+    @Test
+    public void createItem_whenOwnerNotExists_thenNotFound() {
+        ItemDto testedItem = ItemDto.builder()
+                .name("Forth item")
+                .description("Nothing to say")
+                .available(true)
+                .owner(100L)
+                .build();
+
+        assertThrows(NotFoundException.class, () -> itemService.createItem(testedItem));
+    }
+
     @Test
     public void getItem_whenCorrectId_thenGet() {
         Item item = itemService.getItem(1L);
@@ -343,4 +584,9 @@ public class ItemServiceTests {
         assertEquals("good item", testedComment.getText());
 
     }
+
+    @SneakyThrows
+    private String json(Object value) {
+        return objectMapper.writeValueAsString(value);
+    }
 }
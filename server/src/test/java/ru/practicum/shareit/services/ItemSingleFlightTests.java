@@ -0,0 +1,65 @@
+package ru.practicum.shareit.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.auxiliary.SingleFlight;
+import ru.practicum.shareit.auxiliary.Tagged;
+import ru.practicum.shareit.item.dto.items.ItemDto;
+import ru.practicum.shareit.item.dto.items.ItemOutputDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//Без @Transactional: сброс загрузок выполняется после фиксации записи
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql({"/clean.sql", "/data.sql"})
+@ActiveProfiles("test")
+public class ItemSingleFlightTests {
+
+    private final ItemService itemService;
+
+    private final SingleFlight singleFlight;
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        latch.await();
+    }
+
+    //Загрузка вещи, начатая до изменения, еще идет; чтение после изменения должно увидеть новое имя
+    @SneakyThrows
+    @Test
+    public void getItemById_whenLoadStartedBeforeUpdate_thenReadSeesUpdate() {
+        Tagged<ItemOutputDto> stale = itemService.getTaggedItemById(1L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Tagged<ItemOutputDto>> before = executor.submit(() -> singleFlight.execute("item", 1L, () -> {
+                started.countDown();
+                await(release);
+                return stale;
+            }));
+            started.await();
+
+            itemService.updateItem(1L, 1L, ItemDto.builder().name("Renamed").build());
+            Future<ItemOutputDto> after = executor.submit(() -> itemService.getItemById(1L));
+            try {
+                assertEquals("Renamed", after.get(5, TimeUnit.SECONDS).getName());
+            } finally {
+                release.countDown();
+            }
+            assertEquals(stale.body().getName(), before.get().body().getName());
+        }
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.items.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.RequestService;
@@ -22,7 +25,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
-@Sql({"/schema.sql", "/data.sql"})
+@Sql({"/clean.sql", "/data.sql"})
 @ActiveProfiles("test")
 public class RequestServiceTests {
 
@@ -30,6 +33,8 @@ public class RequestServiceTests {
 
     private final RequestService requestService;
 
+    private final ItemService itemService;
+
     @Test
     public void shouldAddNewRequest() {
 
@@ -38,7 +43,7 @@ public class RequestServiceTests {
                 .description("Abracadabra")
                 .build();
         requestService.addNewRequest(requestorId, newRequest);
-        User user = new User(3L, "Third user", "third@email.com");
+        User user = new User(3L, "Third user", "third@email.com", 0L);
 
         TypedQuery<ItemRequest> query =
                 em.createQuery("Select r from ItemRequest r where r.requestor = :requestor", ItemRequest.class);
@@ -50,6 +55,16 @@ public class RequestServiceTests {
 
     }
 
+    @Test
+    public void addNewRequest_whenRequestorNotExists_thenNotFound() {
+        RequestDto newRequest = RequestDto.builder()
+                .description("Abracadabra")
+                .build();
+
+        assertThrows(NotFoundException.class, () -> requestService.addNewRequest(100L, newRequest));
+        assertThrows(NotFoundException.class, () -> requestService.getRequestById(100L, 1L));
+    }
+
     @Test
     public void shouldGetAllUsersRequest() {
 
@@ -75,6 +90,29 @@ public class RequestServiceTests {
 
     }
 
+    @Test
+    public void getTaggedUsersRequests_shouldIncludeAnswersAndChangeETag() {
+        long requestId = requestService.addNewRequest(3L, RequestDto.builder().description("Need a drill").build())
+                .getId();
+        String etagWithoutAnswers = requestService.getTaggedUsersRequests(3L).etag();
+
+        itemService.createItem(ItemDto.builder()
+                .name("Drill")
+                .description("Answer to request")
+                .available(true)
+                .owner(1L)
+                .requestId(requestId)
+                .build());
+        em.flush();
+
+        RequestDto request = requestService.getTaggedUsersRequests(3L).body().getFirst();
+        assertNotEquals(etagWithoutAnswers, requestService.getTaggedUsersRequests(3L).etag());
+        assertEquals(1, request.getItems().size());
+        assertEquals("Drill", request.getItems().getFirst().getName());
+        assertEquals(1L, request.getItems().getFirst().getOwnerId());
+        assertNull(requestService.getAllAnotherUsersRequests(1L).getFirst().getItems());
+    }
+
     @Test
     public void shouldGetAllRequestsOfAnotherUsers() {
 
@@ -114,8 +152,8 @@ public class RequestServiceTests {
         RequestDto newRequest2 = RequestDto.builder()
                 .description("Once more")
                 .build();
-        requestService.addNewRequest(requestorId, newRequest2);
-        long requestId = 2L;
+        //id выдается последовательностью, поэтому берется из ответа
+        long requestId = requestService.addNewRequest(requestorId, newRequest2).getId();
         RequestDto usersRequest = requestService.getRequestById(requestorId, requestId);
 
         assertNotNull(usersRequest);
@@ -130,7 +168,7 @@ public class RequestServiceTests {
                 .description("Abracadabra")
                 .build();
         requestService.addNewRequest(requestorId, newRequest);
-        User user = new User(requestorId, "Third user", "third@email.com");
+        User user = new User(requestorId, "Third user", "third@email.com", 0L);
 
         TypedQuery<ItemRequest> query =
                 em.createQuery("Select r from ItemRequest r where r.requestor = :requestor", ItemRequest.class);
@@ -10,6 +10,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.auxiliary.BatchResult;
 import ru.practicum.shareit.auxiliary.exceptions.DuplicateDataException;
 import ru.practicum.shareit.auxiliary.exceptions.NotFoundException;
 import ru.practicum.shareit.user.User;
@@ -26,7 +27,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
-@Sql({"/schema.sql", "/data.sql"})
+@Sql({"/clean.sql", "/data.sql"})
 @ActiveProfiles("test")
 
 public class UserServiceTests {
@@ -66,6 +67,22 @@ public class UserServiceTests {
         assertThrows(DuplicateDataException.class, () -> service.createUser(userDto));
     }
 
+    @Test
+    public void createUsers_shouldCreateValidAndReportDuplicatesPerElement() {
+        List<BatchResult<UserDto>> results = service.createUsers(List.of(
+                new UserDto("Batch user", "batch@email.com"),
+                new UserDto("Taken email", "first@email.com"),
+                new UserDto("Same email", "batch@email.com"),
+                new UserDto("Other user", "other@email.com")));
+
+        assertEquals(List.of(200, 409, 409, 200), results.stream().map(BatchResult::getStatus).toList());
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchResult::getIndex).toList());
+        assertNotNull(results.get(0).getResult().getId());
+        assertEquals("other@email.com", results.get(3).getResult().getEmail());
+        assertEquals("Users e-mail already exists in base", results.get(1).getError().getMessage());
+        assertEquals(5, service.getAllUsers().size());
+    }
+
     @Test
     public void updateUser_whenCorrectData_thenUpdate() {
         UserDto userDto = new UserDto(3L,"Name of User", "noch_eine@email.com");
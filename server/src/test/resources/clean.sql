@@ -0,0 +1,5 @@
+DELETE FROM comments;
+DELETE FROM bookings;
+DELETE FROM items;
+DELETE FROM requests;
+DELETE FROM users;
@@ -1,12 +1,14 @@
-INSERT INTO users (name, email)
+--Id заданы явно: последовательности в тестах начинаются с 1001 (db/vendor/h2/V8_1__test_id_offset.sql)
+--и не сбрасываются, т.к. Hibernate держит выделенные блоки id в памяти между тестами
+INSERT INTO users (id, name, email)
           VALUES
-              ('First user', 'first@email.com'),
-              ('Second user', 'second@email.com'),
-              ('Third user', 'third@email.com');
+              (1, 'First user', 'first@email.com'),
+              (2, 'Second user', 'second@email.com'),
+              (3, 'Third user', 'third@email.com');
 
-INSERT INTO items (name, description, is_available, owner_id, request_id)
+INSERT INTO items (id, name, description, is_available, owner_id, request_id)
           VALUES
-              ('First item', 'Without description', true, 1, NULL),
-              ('Second item', 'To long description', true, 2, NULL),
-              ('Third item', 'Another description', true, 1, NULL),
-              ('Forth item', 'Non-available item', false, 1, NULL);
\ No newline at end of file
+              (1, 'First item', 'Without description', true, 1, NULL),
+              (2, 'Second item', 'To long description', true, 2, NULL),
+              (3, 'Third item', 'Another description', true, 1, NULL),
+              (4, 'Forth item', 'Non-available item', false, 1, NULL);